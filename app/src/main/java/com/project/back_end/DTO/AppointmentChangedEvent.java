@@ -0,0 +1,43 @@
+package com.project.back_end.DTO;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Published when appointments are booked, cancelled or change status.
+ * A null doctorId means the change cannot be described as a single delta
+ * (bulk updates, reschedules), so listeners should drop derived state.
+ * Each event carries a sequence number taken when it is created, inside the
+ * publishing transaction, so listeners can tell whether the change may
+ * already be part of state they loaded.
+ */
+public record AppointmentChangedEvent(Long doctorId, Integer fromStatus, Integer toStatus, long sequence) {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    public AppointmentChangedEvent(Long doctorId, Integer fromStatus, Integer toStatus) {
+        this(doctorId, fromStatus, toStatus, SEQUENCE.incrementAndGet());
+    }
+
+    public static AppointmentChangedEvent booked(Long doctorId, int status) {
+        return new AppointmentChangedEvent(doctorId, null, status);
+    }
+
+    public static AppointmentChangedEvent cancelled(Long doctorId, int status) {
+        return new AppointmentChangedEvent(doctorId, status, null);
+    }
+
+    public static AppointmentChangedEvent bulk() {
+        return new AppointmentChangedEvent(null, null, null);
+    }
+
+    /**
+     * The sequence number of the most recently created event.
+     */
+    public static long lastSequence() {
+        return SEQUENCE.get();
+    }
+
+    public boolean isBulk() {
+        return doctorId == null;
+    }
+}
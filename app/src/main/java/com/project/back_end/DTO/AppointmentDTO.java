@@ -25,6 +25,7 @@ public class AppointmentDTO {
     private LocalDate appointmentDate;
     private LocalTime appointmentTimeOnly;
     private LocalDateTime endTime;
+    private Long version;
 
     // Keep your existing constructor
     public AppointmentDTO(Long id, Long doctorId, String doctorName, Long patientId, 
@@ -48,4 +49,11 @@ public class AppointmentDTO {
             this.endTime = appointmentTime.plusHours(1);
         }
     }
-}
\ No newline at end of file
+
+    // Used by JPQL constructor expressions that select only the name columns
+    public AppointmentDTO(Long id, Long doctorId, String doctorName, Long patientId,
+                         String patientName, LocalDateTime appointmentTime, int status, Long version) {
+        this(id, doctorId, doctorName, patientId, patientName, null, null, null, appointmentTime, status);
+        this.version = version;
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only appointment row used by the streaming export.
+ * Built directly by a JPQL constructor expression so no entities
+ * (and no lazy associations) are ever attached to the persistence context.
+ */
+public record AppointmentExportRow(
+        Long id,
+        String doctorName,
+        String patientName,
+        LocalDateTime appointmentTime,
+        int status) {
+
+    public String statusText() {
+        return switch (status) {
+            case 0 -> "Scheduled";
+            case 1 -> "Completed";
+            default -> "Unknown";
+        };
+    }
+}
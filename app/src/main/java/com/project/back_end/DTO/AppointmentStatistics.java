@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+/**
+ * Appointment totals of one doctor or patient, by status.
+ */
+public record AppointmentStatistics(Long id, long scheduled, long completed, long total) {
+}
@@ -0,0 +1,8 @@
+package com.project.back_end.DTO;
+
+/**
+ * One row of an appointment GROUP BY: how many appointments an owner
+ * (doctor or patient) has in one status.
+ */
+public record AppointmentStatusCount(Long ownerId, int status, long count) {
+}
@@ -0,0 +1,35 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+public class BulkStatusUpdate {
+    private List<Long> ids;
+    private Integer status;
+
+    // Default constructor
+    public BulkStatusUpdate() {
+    }
+
+    // Parameterized constructor
+    public BulkStatusUpdate(List<Long> ids, Integer status) {
+        this.ids = ids;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for the doctor's daily appointment view.
+ * Carries only the appointment and patient columns the dashboard renders;
+ * the doctor is implied by the request, so no doctor data is selected.
+ */
+public record DoctorAppointmentView(
+        Long id,
+        LocalDateTime appointmentTime,
+        int status,
+        Long patientId,
+        String patientName,
+        String patientPhone,
+        String patientEmail) {
+}
@@ -0,0 +1,89 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of an asynchronous doctor deletion.
+ * Updated by the purge worker and read concurrently by status requests.
+ */
+public class DoctorDeletionProgress {
+
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final Long doctorId;
+    private final LocalDateTime requestedAt = LocalDateTime.now();
+    private final AtomicLong appointmentsDeleted = new AtomicLong();
+    private final AtomicLong prescriptionsDeleted = new AtomicLong();
+    private volatile long appointmentsTotal;
+    private volatile State state = State.PENDING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public DoctorDeletionProgress(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public void start(long appointmentsTotal) {
+        this.appointmentsTotal = appointmentsTotal;
+        this.state = State.RUNNING;
+    }
+
+    public void addDeleted(long appointments, long prescriptions) {
+        appointmentsDeleted.addAndGet(appointments);
+        prescriptionsDeleted.addAndGet(prescriptions);
+    }
+
+    public void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.COMPLETED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.FAILED;
+    }
+
+    // Getters
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getAppointmentsTotal() {
+        return appointmentsTotal;
+    }
+
+    public long getAppointmentsDeleted() {
+        return appointmentsDeleted.get();
+    }
+
+    public long getPrescriptionsDeleted() {
+        return prescriptionsDeleted.get();
+    }
+
+    public int getPercentComplete() {
+        if (state == State.COMPLETED) {
+            return 100;
+        }
+        long total = appointmentsTotal;
+        return total == 0 ? 0 : (int) Math.min(99, appointmentsDeleted.get() * 100 / total);
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * One appointment in which a medication was prescribed, with the patient it
+ * was prescribed to. Built by the medication recipients query.
+ */
+public record MedicationRecipient(
+        Long appointmentId,
+        String patientName,
+        LocalDateTime prescribedDate) {
+}
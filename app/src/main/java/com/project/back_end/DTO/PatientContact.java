@@ -0,0 +1,7 @@
+package com.project.back_end.DTO;
+
+/**
+ * Email and phone of an existing patient, used for set-based duplicate checks.
+ */
+public record PatientContact(String email, String phone) {
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view prescription row for a doctor's history.
+ * Read with a field projection, so notes, refills and timestamps are
+ * never transferred from MongoDB.
+ */
+public record PrescriptionSummary(
+        String id,
+        Long appointmentId,
+        String patientName,
+        String medication,
+        String dosage,
+        LocalDateTime prescribedDate,
+        Boolean isActive) {
+}
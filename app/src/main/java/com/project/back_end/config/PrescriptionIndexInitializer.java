@@ -0,0 +1,69 @@
+package com.project.back_end.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Prescription;
+
+/**
+ * Creates the indexes declared on {@link Prescription} and verifies they exist
+ * before the application starts serving requests. Index creation is idempotent;
+ * a failure (e.g. duplicate appointment_id values blocking the unique index)
+ * aborts startup rather than leaving lookups to scan the collection.
+ * Indexes superseded by a new definition are dropped so they stop costing writes.
+ */
+@Component
+public class PrescriptionIndexInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionIndexInitializer.class);
+
+    // Replaced by idx_doctor_prescribed_date_id
+    private static final List<String> RETIRED_INDEXES = List.of("idx_doctor_prescribed_date");
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    public PrescriptionIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Prescription.class);
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        List<String> expected = new ArrayList<>();
+        for (IndexDefinition definition : resolver.resolveIndexFor(Prescription.class)) {
+            expected.add(indexOps.createIndex(definition));
+        }
+
+        Set<String> existing = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        for (String retired : RETIRED_INDEXES) {
+            if (existing.remove(retired)) {
+                indexOps.dropIndex(retired);
+                log.info("Dropped retired prescription index {}", retired);
+            }
+        }
+        List<String> missing = expected.stream().filter(name -> !existing.contains(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing prescription indexes: " + missing);
+        }
+        log.info("Prescription indexes verified: {}", expected);
+    }
+}
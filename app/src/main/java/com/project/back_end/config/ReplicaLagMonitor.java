@@ -0,0 +1,67 @@
+package com.project.back_end.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls the replica's replication delay. While the delay is unknown or above
+ * the limit, read-only transactions are routed to the primary instead.
+ * An empty lag query disables the check (e.g. two local embedded databases).
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, String lagColumn, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLagSeconds = maxLagSeconds;
+        this.replicaUsable = lagQuery == null || lagQuery.isBlank();
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void check() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return;
+        }
+        boolean usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            // No row or a NULL delay means replication is not running
+            if (rs.next()) {
+                long lag = rs.getLong(lagColumn);
+                usable = !rs.wasNull() && lag <= maxLagSeconds;
+            } else {
+                usable = false;
+            }
+        } catch (Exception e) {
+            log.debug("Replica lag check failed", e);
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.warn(usable ? "Replica caught up, routing reads to it again"
+                            : "Replica unavailable or lagging, routing reads to the primary");
+        }
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each handler method issued.
+ * Published as the sql.statements.per.request summary (tagged by handler) and
+ * logged as a warning above a threshold, which is how N+1 patterns show up.
+ */
+@Component
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.sql.statement-warn-threshold:20}")
+    private int warnThreshold;
+
+    public StatementCountInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        StatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        int statements = StatementCounter.current();
+        String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements issued while handling one request")
+                .tag("handler", name)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (statements > warnThreshold) {
+            log.warn("{} issued {} SQL statements for {} {}", name, statements,
+                    request.getMethod(), request.getRequestURI());
+        }
+    }
+}
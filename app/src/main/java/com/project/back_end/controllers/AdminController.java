@@ -1,10 +1,14 @@
 package com.project.back_end.controllers;
 
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,6 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.project.back_end.models.Admin;
 import com.project.back_end.services.AuthService;
+import com.project.back_end.services.PatientImportService;
 
 @RestController
 @RequestMapping("${api.path}" + "admin")
@@ -19,10 +24,12 @@ import com.project.back_end.services.AuthService;
 public class AdminController {
 
     private final AuthService authService;
+    private final PatientImportService patientImportService;
 
     @Autowired
-    public AdminController(AuthService authService) {
+    public AdminController(AuthService authService, PatientImportService patientImportService) {
         this.authService = authService;
+        this.patientImportService = patientImportService;
     }
    
     @PostMapping("/login")
@@ -30,4 +37,27 @@ public class AdminController {
         System.out.println("ADMIN LOGIN HIT");
         return authService.validateAdmin(admin);
     }
-}
\ No newline at end of file
+
+    // Body is the raw CSV (e.g. curl --data-binary @patients.csv -H "Content-Type: text/csv"),
+    // read as a stream so large uploads are never buffered whole
+    @PostMapping("/patients/import/{token}")
+    public ResponseEntity<?> importPatients(InputStream body, @PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "ADMIN");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        try {
+            return ResponseEntity.ok(patientImportService.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Import failed: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+}
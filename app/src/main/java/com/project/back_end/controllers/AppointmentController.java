@@ -1,10 +1,15 @@
 package com.project.back_end.controllers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,10 +18,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.project.back_end.DTO.BulkStatusUpdate;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.services.AppointmentExportService;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.AppointmentStatisticsService;
 import com.project.back_end.services.AuthService;
 
 @RestController
@@ -25,11 +35,28 @@ public class AppointmentController {
 
     private final AppointmentService appointmentService;
     private final AuthService authService;
+    private final AppointmentExportService appointmentExportService;
+    private final AppointmentStatisticsService appointmentStatisticsService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, AuthService authService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 AuthService authService,
+                                 AppointmentExportService appointmentExportService,
+                                 AppointmentStatisticsService appointmentStatisticsService) {
         this.appointmentService = appointmentService;
         this.authService = authService;
+        this.appointmentExportService = appointmentExportService;
+        this.appointmentStatisticsService = appointmentStatisticsService;
+    }
+
+    @GetMapping("/statistics/{token}")
+    public ResponseEntity<?> getDoctorStatistics(@PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "ADMIN");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        return ResponseEntity.ok(appointmentStatisticsService.getDoctorStatistics());
     }
 
     @GetMapping("/{date}/{patientName}/{token}")
@@ -79,7 +106,17 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
         }
         
-        return appointmentService.updateAppointment(appointment);
+        return appointmentService.updateAppointment(appointment, token);
+    }
+
+    @PutMapping("/status/{token}")
+    public ResponseEntity<?> changeStatuses(@RequestBody BulkStatusUpdate update, @PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "DOCTOR");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        return appointmentService.changeStatuses(update.getIds(), update.getStatus(), token);
     }
 
     @DeleteMapping("/{id}/{token}")
@@ -91,4 +128,57 @@ public class AppointmentController {
         
         return appointmentService.cancelAppointment(id, token);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/export/{format}/{token}")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @PathVariable String format,
+            @PathVariable String token,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam String start,
+            @RequestParam String end) {
+
+        // Admins may export any doctor; doctors are always scoped to themselves
+        String userType = authService.getUserTypeFromToken(token);
+        if (!"ADMIN".equals(userType) && !"DOCTOR".equals(userType)) {
+            return exportError(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+        Map<String, String> validationResponse = authService.validateToken(token, userType);
+        if (validationResponse.containsKey("error")) {
+            return exportError(HttpStatus.UNAUTHORIZED, validationResponse.get("error"));
+        }
+        if ("DOCTOR".equals(userType)) {
+            doctorId = authService.getDoctorIdFromToken(token);
+        }
+
+        if (!appointmentExportService.isSupportedFormat(format)) {
+            return exportError(HttpStatus.BAD_REQUEST, "Unsupported format. Use 'csv' or 'ndjson'");
+        }
+
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(start);
+            endDate = LocalDate.parse(end);
+        } catch (DateTimeParseException e) {
+            return exportError(HttpStatus.BAD_REQUEST, "Dates must use the format yyyy-MM-dd");
+        }
+
+        boolean csv = AppointmentExportService.FORMAT_CSV.equalsIgnoreCase(format);
+        Long exportDoctorId = doctorId;
+        StreamingResponseBody body = out -> appointmentExportService.exportAppointments(
+                exportDoctorId, startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX), format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportError(HttpStatus status, String message) {
+        String json = "{\"error\":\"" + message.replace("\"", "'") + "\"}";
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
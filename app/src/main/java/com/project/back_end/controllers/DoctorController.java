@@ -16,9 +16,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.DoctorDeletionProgress;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.services.AuthService;
+import com.project.back_end.services.DoctorDeletionService;
 import com.project.back_end.services.DoctorService;
 
 @RestController
@@ -27,11 +29,14 @@ public class DoctorController {
 
     private final DoctorService doctorService;
     private final AuthService authService;
+    private final DoctorDeletionService doctorDeletionService;
 
     @Autowired
-    public DoctorController(DoctorService doctorService, AuthService authService) {
+    public DoctorController(DoctorService doctorService, AuthService authService,
+                            DoctorDeletionService doctorDeletionService) {
         this.doctorService = doctorService;
         this.authService = authService;
+        this.doctorDeletionService = doctorDeletionService;
     }
 
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
@@ -122,19 +127,34 @@ public class DoctorController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
         }
         
-        int result = doctorService.deleteDoctor(id);
-        Map<String, String> response = new java.util.HashMap<>();
-        
-        if (result == 1) {
-            response.put("message", "Doctor deleted successfully");
-            return ResponseEntity.ok(response);
-        } else if (result == -1) {
+        DoctorDeletionProgress progress = doctorDeletionService.requestDeletion(id);
+        if (progress == null) {
+            Map<String, String> response = new java.util.HashMap<>();
             response.put("error", "Doctor not found with id");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        } else {
-            response.put("error", "Some internal error occurred");
-            return ResponseEntity.internalServerError().body(response);
         }
+        
+        // Doctor is disabled right away; history is purged in the background
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("message", "Doctor deletion accepted");
+        response.put("progress", progress);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/deletion/{id}/{token}")
+    public ResponseEntity<?> getDeletionProgress(@PathVariable long id, @PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "ADMIN");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        DoctorDeletionProgress progress = doctorDeletionService.getProgress(id);
+        if (progress == null) {
+            Map<String, String> response = new java.util.HashMap<>();
+            response.put("error", "No deletion in progress for doctor with id: " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        return ResponseEntity.ok(progress);
     }
 
     @GetMapping("/filter")
@@ -10,10 +10,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.AppointmentStatisticsService;
 import com.project.back_end.services.AuthService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.TokenService;
@@ -25,14 +27,17 @@ public class PatientController {
     private final PatientService patientService;
     private final AuthService authService;
     private final TokenService tokenService;
+    private final AppointmentStatisticsService appointmentStatisticsService;
 
     @Autowired
     public PatientController(PatientService patientService, 
                            AuthService authService,
-                           TokenService tokenService) {
+                           TokenService tokenService,
+                           AppointmentStatisticsService appointmentStatisticsService) {
         this.patientService = patientService;
         this.authService = authService;
         this.tokenService = tokenService;
+        this.appointmentStatisticsService = appointmentStatisticsService;
     }
 
     @GetMapping("/{token}")
@@ -46,12 +51,22 @@ public class PatientController {
 
     @PostMapping()
     public ResponseEntity<?> createPatient(@RequestBody Patient patient) {
-        int result = patientService.createPatient(patient);
         Map<String, String> response = new java.util.HashMap<>();
         
+        // Cheap pre-check for a friendly message; the unique indexes settle races
+        if (!authService.validatePatient(patient)) {
+            response.put("error", "Patient with email id or phone no already exist");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        
+        int result = patientService.createPatient(patient);
+        
         if (result == 1) {
             response.put("message", "Signup successful");
             return ResponseEntity.ok(response);
+        } else if (result == -1) {
+            response.put("error", "Patient with email id or phone no already exist");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } else {
             response.put("error", "Internal server error");
             return ResponseEntity.internalServerError().body(response);
@@ -83,24 +98,14 @@ public class PatientController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
         }
         
-        // Extract patient email from token using TokenService
-        String email = tokenService.extractEmail(token);
-        if (email == null) {
+        // Patient ID comes straight from the verified token claim
+        Long patientId = tokenService.extractPatientId(token);
+        if (patientId == null) {
             Map<String, String> errorResponse = new java.util.HashMap<>();
             errorResponse.put("error", "Invalid token");
             return ResponseEntity.status(401).body(errorResponse);
         }
         
-        // Get patient by email to get the ID
-        Patient patient = patientService.getPatientByEmail(email);
-        if (patient == null) {
-            Map<String, String> errorResponse = new java.util.HashMap<>();
-            errorResponse.put("error", "Patient not found");
-            return ResponseEntity.status(404).body(errorResponse);
-        }
-        
-        long patientId = patient.getId();
-        
         // Check if name parameter is empty
         if (name == null || name.trim().isEmpty()) {
             // Filter by condition only
@@ -113,4 +118,32 @@ public class PatientController {
             return patientService.filterByDoctorAndCondition(condition, name, patientId);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/appointments/{timeline}/{token}")
+    public ResponseEntity<?> getAppointmentHistoryPage(
+            @PathVariable String timeline,
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
+            @RequestParam(required = false) Integer size) {
+        
+        Map<String, String> validationResponse = authService.validateToken(token, "PATIENT");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        Long patientId = tokenService.extractPatientId(token);
+        return patientService.getAppointmentHistoryPage(patientId, timeline, cursor, direction, size);
+    }
+
+    @GetMapping("/statistics/{token}")
+    public ResponseEntity<?> getAppointmentStatistics(@PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "PATIENT");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        Long patientId = tokenService.extractPatientId(token);
+        return ResponseEntity.ok(appointmentStatisticsService.getPatientStatistics(patientId));
+    }
+}
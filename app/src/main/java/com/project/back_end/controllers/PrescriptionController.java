@@ -1,13 +1,22 @@
 package com.project.back_end.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.AuthService;
+import com.project.back_end.services.ReactivePrescriptionService;
+import com.project.back_end.services.TokenService;
 import com.project.back_end.models.Prescription;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("${api.path}" + "prescription")
@@ -15,11 +24,18 @@ public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
     private final AuthService authService;
+    private final TokenService tokenService;
+    private final ReactivePrescriptionService reactivePrescriptionService;
 
     @Autowired
-    public PrescriptionController(PrescriptionService prescriptionService, AuthService authService) {
+    public PrescriptionController(PrescriptionService prescriptionService,
+                                  AuthService authService,
+                                  TokenService tokenService,
+                                  ReactivePrescriptionService reactivePrescriptionService) {
         this.prescriptionService = prescriptionService;
         this.authService = authService;
+        this.tokenService = tokenService;
+        this.reactivePrescriptionService = reactivePrescriptionService;
     }
 
     @PostMapping("/{token}")
@@ -39,4 +55,93 @@ public class PrescriptionController {
         }
         return prescriptionService.getPrescription(appointmentId);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch/{token}")
+    public ResponseEntity<?> getPrescriptions(@RequestBody List<Long> appointmentIds, @PathVariable String token) {
+        Map<String, String> validationResponse = authService.validateToken(token, "DOCTOR");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        return prescriptionService.getPrescriptions(appointmentIds);
+    }
+
+    @GetMapping("/doctor/{token}")
+    public ResponseEntity<?> getDoctorPrescriptions(
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        Map<String, String> validationResponse = authService.validateToken(token, "DOCTOR");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        
+        Long doctorId = tokenService.extractDoctorId(token);
+        return prescriptionService.getPrescriptionsByDoctorId(doctorId, cursor, size, from, to);
+    }
+
+    @GetMapping("/search/{token}")
+    public ResponseEntity<?> searchByMedication(
+            @PathVariable String token,
+            @RequestParam String medication,
+            @RequestParam(defaultValue = "true") boolean prefix,
+            @RequestParam(required = false) Integer size) {
+        
+        Map<String, String> validationResponse = authService.validateToken(token, "DOCTOR");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        return prescriptionService.searchByMedication(medication, prefix, size);
+    }
+
+    @GetMapping("/recipients/{token}")
+    public ResponseEntity<?> getMedicationRecipients(
+            @PathVariable String token,
+            @RequestParam String medication,
+            @RequestParam(defaultValue = "false") boolean prefix) {
+        
+        Map<String, String> validationResponse = authService.validateToken(token, "ADMIN");
+        if (validationResponse.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse);
+        }
+        return prescriptionService.getMedicationRecipients(medication, prefix);
+    }
+
+    // Non-blocking variants: the request thread is released while MongoDB answers
+
+    @PostMapping("/reactive/{token}")
+    public Mono<ResponseEntity<?>> savePrescriptionReactive(@RequestBody Prescription prescription,
+                                                            @PathVariable String token) {
+        return asDoctor(token, () -> reactivePrescriptionService.savePrescription(prescription));
+    }
+
+    @GetMapping("/reactive/{appointmentId}/{token}")
+    public Mono<ResponseEntity<?>> getPrescriptionReactive(@PathVariable long appointmentId,
+                                                           @PathVariable String token) {
+        return asDoctor(token, () -> reactivePrescriptionService.getPrescription(appointmentId));
+    }
+
+    @PostMapping("/reactive/batch/{token}")
+    public Mono<ResponseEntity<?>> getPrescriptionsReactive(@RequestBody List<Long> appointmentIds,
+                                                            @PathVariable String token) {
+        return asDoctor(token, () -> reactivePrescriptionService.getPrescriptions(appointmentIds));
+    }
+
+    /**
+     * Validate a doctor token, then run the action.
+     * Token validation still reads MySQL through JPA, so it runs on the
+     * bounded elastic scheduler instead of a request or driver thread.
+     */
+    private Mono<ResponseEntity<?>> asDoctor(String token, Supplier<Mono<? extends ResponseEntity<?>>> action) {
+        return Mono.fromCallable(() -> authService.validateToken(token, "DOCTOR"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(validationResponse -> {
+                    if (validationResponse.containsKey("error")) {
+                        return Mono.<ResponseEntity<?>>just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(validationResponse));
+                    }
+                    return action.get().<ResponseEntity<?>>map(response -> response);
+                });
+    }
+}
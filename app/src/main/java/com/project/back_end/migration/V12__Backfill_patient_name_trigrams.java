@@ -0,0 +1,48 @@
+package com.project.back_end.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.SearchNormalizer;
+
+/**
+ * Fill patient_name_trigrams for rows that existed before V11, from the
+ * name_search values V4 and the entity callbacks maintain.
+ */
+@Component
+public class V12__Backfill_patient_name_trigrams extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, name_search FROM patients");
+             PreparedStatement insertTrigram = connection.prepareStatement(
+                     "INSERT INTO patient_name_trigrams (patient_id, trigram) VALUES (?, ?)")) {
+
+            int pending = 0;
+            while (rows.next()) {
+                long id = rows.getLong(1);
+                for (String trigram : SearchNormalizer.trigrams(rows.getString(2))) {
+                    insertTrigram.setLong(1, id);
+                    insertTrigram.setString(2, trigram);
+                    insertTrigram.addBatch();
+                }
+
+                if (++pending == BATCH_SIZE) {
+                    insertTrigram.executeBatch();
+                    pending = 0;
+                }
+            }
+            insertTrigram.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.back_end.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.SearchNormalizer;
+
+/**
+ * Fill name_search and doctor_name_trigrams for rows that existed before V3.
+ * Done in Java so the backfill uses exactly the same normalization as the
+ * entity callbacks (MySQL has no accent-folding function).
+ */
+@Component
+public class V4__Backfill_name_search extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        backfillDoctors(connection);
+        backfillPatients(connection);
+    }
+
+    private void backfillDoctors(Connection connection) throws Exception {
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, name FROM doctors");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE doctors SET name_search = ? WHERE id = ?");
+             PreparedStatement insertTrigram = connection.prepareStatement(
+                     "INSERT INTO doctor_name_trigrams (doctor_id, trigram) VALUES (?, ?)")) {
+
+            int pending = 0;
+            while (rows.next()) {
+                long id = rows.getLong(1);
+                String normalized = SearchNormalizer.normalize(rows.getString(2));
+
+                update.setString(1, normalized);
+                update.setLong(2, id);
+                update.addBatch();
+
+                for (String trigram : SearchNormalizer.trigrams(normalized)) {
+                    insertTrigram.setLong(1, id);
+                    insertTrigram.setString(2, trigram);
+                    insertTrigram.addBatch();
+                }
+
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    insertTrigram.executeBatch();
+                    pending = 0;
+                }
+            }
+            update.executeBatch();
+            insertTrigram.executeBatch();
+        }
+    }
+
+    private void backfillPatients(Connection connection) throws Exception {
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, name FROM patients");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE patients SET name_search = ? WHERE id = ?")) {
+
+            int pending = 0;
+            while (rows.next()) {
+                update.setString(1, SearchNormalizer.normalize(rows.getString(2)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            update.executeBatch();
+        }
+    }
+}
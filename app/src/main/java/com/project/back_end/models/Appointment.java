@@ -14,6 +14,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
 
@@ -44,6 +45,10 @@ public class Appointment {
     @NotNull(message = "Status is required")
     private int status; // 0 = Scheduled, 1 = Completed
 
+    // Optimistic lock; clients send back the version they read when updating
+    @Version
+    private Long version;
+
     // Default constructor (required by JPA)
     public Appointment() {
     }
@@ -124,6 +129,14 @@ public class Appointment {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Convenience methods for status
 
     @Transient
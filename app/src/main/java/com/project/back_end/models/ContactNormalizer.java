@@ -0,0 +1,44 @@
+package com.project.back_end.models;
+
+import java.util.Locale;
+
+/**
+ * Canonical forms of patient contact details.
+ * Emails and phones are stored normalized so the unique indexes on them
+ * catch duplicates that differ only in case, spacing or punctuation.
+ */
+public final class ContactNormalizer {
+
+    private ContactNormalizer() {
+    }
+
+    /**
+     * Normalize an email address (trimmed, lowercased).
+     * 
+     * @param email the raw email
+     * @return the normalized email, or null if the input is null
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalize a phone number by keeping only its digits.
+     * 
+     * @param phone the raw phone number
+     * @return the normalized phone number, or null if the input is null
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
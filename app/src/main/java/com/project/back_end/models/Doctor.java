@@ -1,8 +1,15 @@
 package com.project.back_end.models;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.CascadeType;
@@ -16,6 +23,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
@@ -25,6 +34,7 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "doctors")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 public class Doctor {
 
     @Id
@@ -36,6 +46,11 @@ public class Doctor {
     @Column(nullable = false, length = 100)
     private String name;
 
+    // Normalized copy of name for index-friendly search, maintained by lifecycle callbacks
+    @Column(name = "name_search", length = 100)
+    @JsonIgnore
+    private String nameSearch;
+
     @NotBlank(message = "Specialty is required")
     @Size(min = 3, max = 50, message = "Specialty must be between 3 and 50 characters")
     @Column(nullable = false, length = 50)
@@ -57,15 +72,32 @@ public class Doctor {
     @Column(nullable = false, length = 10)
     private String phone;
 
+    // Batch-initialized, so a list of doctors loads its slots in one query per 100 doctors
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor-available-times")
     @CollectionTable(name = "doctor_available_times", 
                      joinColumns = @JoinColumn(name = "doctor_id"))
     @Column(name = "time_slot", length = 20)
     private List<String> availableTimes = new ArrayList<>();
 
+    // Cleared when deletion is requested; inactive doctors are hidden while their history is purged
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean active = true;
+
+    // Trigrams of nameSearch, backing index-assisted "contains" search
+    @ElementCollection
+    @CollectionTable(name = "doctor_name_trigrams",
+                     joinColumns = @JoinColumn(name = "doctor_id"))
+    @Column(name = "trigram", length = 3)
+    @JsonIgnore
+    private Set<String> nameTrigrams = new HashSet<>();
+
     // Relationships
+    // Never serialized: rendering it would load every appointment of every doctor
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonIgnore
     private List<Appointment> appointments = new ArrayList<>();
 
     // Default constructor (required by JPA)
@@ -81,6 +113,21 @@ public class Doctor {
         this.phone = phone;
     }
 
+    // Lifecycle callbacks
+    @PrePersist
+    @PreUpdate
+    protected void updateSearchFields() {
+        this.nameSearch = SearchNormalizer.normalize(name);
+        Set<String> trigrams = SearchNormalizer.trigrams(nameSearch);
+        if (nameTrigrams == null) {
+            nameTrigrams = new HashSet<>();
+        }
+        if (!nameTrigrams.equals(trigrams)) {
+            nameTrigrams.clear();
+            nameTrigrams.addAll(trigrams);
+        }
+    }
+
     // Helper methods
 
     public void addAvailableTime(String timeSlot) {
@@ -107,6 +154,7 @@ public class Doctor {
     }
 
     @Transient
+    @JsonIgnore
     public long getTotalAppointments() {
         return appointments != null ? appointments.size() : 0;
     }
@@ -135,6 +183,10 @@ public class Doctor {
         this.name = name;
     }
 
+    public String getNameSearch() {
+        return nameSearch;
+    }
+
     public String getSpecialty() {
         return specialty;
     }
@@ -167,6 +219,14 @@ public class Doctor {
         this.phone = phone;
     }
 
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
     public List<String> getAvailableTimes() {
         return availableTimes;
     }
@@ -175,6 +235,7 @@ public class Doctor {
         this.availableTimes = availableTimes;
     }
 
+    @JsonIgnore
     public List<Appointment> getAppointments() {
         return appointments;
     }
@@ -2,17 +2,23 @@ package com.project.back_end.models;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
@@ -36,6 +42,11 @@ public class Patient {
     @Column(nullable = false, length = 100)
     private String name;
 
+    // Normalized copy of name for index-friendly search, maintained by lifecycle callbacks
+    @Column(name = "name_search", length = 100)
+    @JsonIgnore
+    private String nameSearch;
+
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
     @Column(nullable = false, unique = true, length = 100)
@@ -49,7 +60,7 @@ public class Patient {
 
     @NotBlank(message = "Phone number is required")
     @Pattern(regexp = "\\d{10}", message = "Phone number must be exactly 10 digits")
-    @Column(nullable = false, length = 10)
+    @Column(nullable = false, unique = true, length = 10)
     private String phone;
 
     @NotBlank(message = "Address is required")
@@ -67,9 +78,18 @@ public class Patient {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    // Trigrams of nameSearch, backing index-assisted "contains" search
+    @ElementCollection
+    @CollectionTable(name = "patient_name_trigrams",
+                     joinColumns = @JoinColumn(name = "patient_id"))
+    @Column(name = "trigram", length = 3)
+    @JsonIgnore
+    private Set<String> nameTrigrams = new HashSet<>();
+
     // Relationships
+    // Never serialized: rendering it would load the patient's whole history
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonIgnore
     private List<Appointment> appointments = new ArrayList<>();
 
     // Default constructor (required by JPA)
@@ -90,11 +110,28 @@ public class Patient {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        normalizeFields();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        normalizeFields();
+    }
+
+    // Runs before bean validation, so a formatted phone like "555-123-4567" is accepted
+    private void normalizeFields() {
+        this.nameSearch = SearchNormalizer.normalize(name);
+        this.email = ContactNormalizer.normalizeEmail(email);
+        this.phone = ContactNormalizer.normalizePhone(phone);
+        Set<String> trigrams = SearchNormalizer.trigrams(nameSearch);
+        if (nameTrigrams == null) {
+            nameTrigrams = new HashSet<>();
+        }
+        if (!nameTrigrams.equals(trigrams)) {
+            nameTrigrams.clear();
+            nameTrigrams.addAll(trigrams);
+        }
     }
 
     // Helper methods
@@ -109,11 +146,13 @@ public class Patient {
     }
 
     @Transient
+    @JsonIgnore
     public long getTotalAppointments() {
         return appointments != null ? appointments.size() : 0;
     }
 
     @Transient
+    @JsonIgnore
     public long getUpcomingAppointments() {
         if (appointments == null) return 0;
         return appointments.stream()
@@ -146,6 +185,10 @@ public class Patient {
         this.name = name;
     }
 
+    public String getNameSearch() {
+        return nameSearch;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -202,6 +245,7 @@ public class Patient {
         this.lastLogin = lastLogin;
     }
 
+    @JsonIgnore
     public List<Appointment> getAppointments() {
         return appointments;
     }
@@ -1,16 +1,32 @@
 package com.project.back_end.models;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+// Indexes are created and verified at startup by PrescriptionIndexInitializer
 @Document(collection = "prescriptions")
+@CompoundIndexes({
+    // Doctor history pages, newest first; _id breaks ties for the keyset cursor
+    @CompoundIndex(name = "idx_doctor_prescribed_date_id", def = "{'doctor_id': 1, 'prescribed_date': -1, '_id': -1}"),
+    // Medication search: exact and prefix token matches, newest first
+    @CompoundIndex(name = "idx_medication_tokens", def = "{'medication_tokens': 1, 'prescribed_date': -1}"),
+    // Active prescriptions only; inactive ones are rarely queried
+    @CompoundIndex(name = "idx_active_doctor", def = "{'is_active': 1, 'doctor_id': 1}",
+                   partialFilter = "{'is_active': true}")
+})
 public class Prescription {
 
     @Id
@@ -21,7 +37,9 @@ public class Prescription {
     @Field("patient_name")
     private String patientName;
 
+    // At most one prescription per appointment
     @NotNull(message = "Appointment ID is required")
+    @Indexed(name = "uk_appointment_id", unique = true)
     @Field("appointment_id")
     private Long appointmentId;
 
@@ -29,6 +47,11 @@ public class Prescription {
     @Size(min = 3, max = 100, message = "Medication must be between 3 and 100 characters")
     private String medication;
 
+    // Normalized words of the medication, kept in step by setMedication
+    @JsonIgnore
+    @Field("medication_tokens")
+    private List<String> medicationTokens;
+
     @NotBlank(message = "Dosage is required")
     @Size(min = 3, max = 20, message = "Dosage must be between 3 and 20 characters")
     private String dosage;
@@ -71,7 +94,7 @@ public class Prescription {
         this();
         this.patientName = patientName;
         this.appointmentId = appointmentId;
-        this.medication = medication;
+        setMedication(medication);
         this.dosage = dosage;
     }
 
@@ -194,6 +217,11 @@ public class Prescription {
 
     public void setMedication(String medication) {
         this.medication = medication;
+        this.medicationTokens = SearchNormalizer.tokens(medication);
+    }
+
+    public List<String> getMedicationTokens() {
+        return medicationTokens;
     }
 
     public String getDosage() {
@@ -0,0 +1,78 @@
+package com.project.back_end.models;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the normalized search forms persisted alongside names.
+ * Values are trimmed, accent-folded, lowercased and whitespace-collapsed so
+ * lookups can compare raw column values and stay index-friendly.
+ */
+public final class SearchNormalizer {
+
+    public static final int GRAM_SIZE = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchNormalizer() {
+    }
+
+    /**
+     * Normalize a value for search.
+     * 
+     * @param value the raw value
+     * @return the normalized value, or null if the input is null
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(value.trim(), Normalizer.Form.NFD))
+                .replaceAll("");
+        return WHITESPACE.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    /**
+     * Split a normalized value into its distinct trigrams.
+     * 
+     * @param normalized a value already passed through {@link #normalize(String)}
+     * @return the distinct trigrams, empty if the value is shorter than three characters
+     */
+    public static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized == null) {
+            return grams;
+        }
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * Split a value into its distinct normalized words, e.g.
+     * "Amoxicillin/Clavulanate 875-mg" becomes [amoxicillin, clavulanate, 875, mg].
+     * 
+     * @param value the raw value
+     * @return the distinct words in order, empty if the value is null or blank
+     */
+    public static List<String> tokens(String value) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String normalized = normalize(value);
+        if (normalized != null) {
+            for (String token : NON_ALPHANUMERIC.split(normalized)) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
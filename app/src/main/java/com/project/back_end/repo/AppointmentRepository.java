@@ -1,17 +1,29 @@
 package com.project.back_end.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentExportRow;
+import com.project.back_end.DTO.AppointmentStatusCount;
+import com.project.back_end.DTO.DoctorAppointmentView;
 import com.project.back_end.models.Appointment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
@@ -32,27 +44,6 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
 
-    /**
-     * Filter appointments by doctor ID, partial patient name (case-insensitive), and time range.
-     * 
-     * @param doctorId the ID of the doctor
-     * @param patientName partial patient name to search for
-     * @param start the start time of the range
-     * @param end the end time of the range
-     * @return list of filtered appointments
-     */
-    @Query("SELECT a FROM Appointment a " +
-           "LEFT JOIN FETCH a.patient p " +
-           "LEFT JOIN FETCH a.doctor d " +
-           "WHERE a.doctor.id = :doctorId " +
-           "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) " +
-           "AND a.appointmentTime BETWEEN :start AND :end")
-    List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-            @Param("doctorId") Long doctorId,
-            @Param("patientName") String patientName,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end);
-
     /**
      * Delete all appointments related to a specific doctor.
      * 
@@ -85,12 +76,12 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     /**
      * Search appointments by partial doctor name and patient ID.
      * 
-     * @param doctorName partial doctor name to search for
+     * @param doctorName normalized partial doctor name (see SearchNormalizer)
      * @param patientId the ID of the patient
      * @return list of filtered appointments
      */
     @Query("SELECT a FROM Appointment a " +
-           "WHERE LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
+           "WHERE a.doctor.nameSearch LIKE CONCAT('%', :doctorName, '%') " +
            "AND a.patient.id = :patientId")
     List<Appointment> filterByDoctorNameAndPatientId(
             @Param("doctorName") String doctorName,
@@ -99,13 +90,13 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     /**
      * Filter appointments by doctor name, patient ID, and status.
      * 
-     * @param doctorName partial doctor name to search for
+     * @param doctorName normalized partial doctor name (see SearchNormalizer)
      * @param patientId the ID of the patient
      * @param status the status of the appointments
      * @return list of filtered appointments
      */
     @Query("SELECT a FROM Appointment a " +
-           "WHERE LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
+           "WHERE a.doctor.nameSearch LIKE CONCAT('%', :doctorName, '%') " +
            "AND a.patient.id = :patientId " +
            "AND a.status = :status")
     List<Appointment> filterByDoctorNameAndPatientIdAndStatus(
@@ -121,6 +112,422 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
      */
     @Modifying
     @Transactional
-    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1 WHERE a.id = :id")
     void updateStatus(@Param("status") int status, @Param("id") long id);
-}
\ No newline at end of file
+
+    /**
+     * Stream flat export rows for a time range across all doctors.
+     * Rows are read through a forward-only cursor with a bounded fetch size, so the
+     * caller must consume the stream inside a read-only transaction and close it.
+     * 
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return stream of export rows ordered by appointment time
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.back_end.DTO.AppointmentExportRow(" +
+           "a.id, d.name, p.name, a.appointmentTime, a.status) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE a.appointmentTime BETWEEN :start AND :end " +
+           "ORDER BY a.appointmentTime, a.id")
+    Stream<AppointmentExportRow> streamExportRows(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Stream flat export rows for one doctor and a time range.
+     * Kept separate from {@link #streamExportRows} so the doctor filter is a plain
+     * equality MySQL can serve from the (doctor_id, appointment_time) index.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return stream of export rows ordered by appointment time
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.back_end.DTO.AppointmentExportRow(" +
+           "a.id, d.name, p.name, a.appointmentTime, a.status) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime BETWEEN :start AND :end " +
+           "ORDER BY a.appointmentTime, a.id")
+    Stream<AppointmentExportRow> streamExportRowsForDoctor(
+            @Param("doctorId") Long doctorId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieve appointment DTOs for a patient in a single statement.
+     * 
+     * @param patientId the ID of the patient
+     * @return list of appointment DTOs ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE p.id = :patientId " +
+           "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findDTOsByPatientId(@Param("patientId") Long patientId);
+
+    /**
+     * Retrieve appointment DTOs for a patient by status in a single statement.
+     * 
+     * @param patientId the ID of the patient
+     * @param status the status of the appointments
+     * @return list of appointment DTOs ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE p.id = :patientId AND a.status = :status " +
+           "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findDTOsByPatientIdAndStatus(
+            @Param("patientId") Long patientId,
+            @Param("status") int status);
+
+    /**
+     * Search appointment DTOs by partial doctor name and patient ID in a single statement.
+     * 
+     * @param doctorName normalized partial doctor name (see SearchNormalizer)
+     * @param patientId the ID of the patient
+     * @return list of appointment DTOs ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE d.nameSearch LIKE CONCAT('%', :doctorName, '%') " +
+           "AND p.id = :patientId " +
+           "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> filterDTOsByDoctorNameAndPatientId(
+            @Param("doctorName") String doctorName,
+            @Param("patientId") Long patientId);
+
+    /**
+     * Filter appointment DTOs by doctor name, patient ID, and status in a single statement.
+     * 
+     * @param doctorName normalized partial doctor name (see SearchNormalizer)
+     * @param patientId the ID of the patient
+     * @param status the status of the appointments
+     * @return list of appointment DTOs ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE d.nameSearch LIKE CONCAT('%', :doctorName, '%') " +
+           "AND p.id = :patientId " +
+           "AND a.status = :status " +
+           "ORDER BY a.appointmentTime")
+    List<AppointmentDTO> filterDTOsByDoctorNameAndPatientIdAndStatus(
+            @Param("doctorName") String doctorName,
+            @Param("patientId") Long patientId,
+            @Param("status") int status);
+
+    /**
+     * Retrieve the doctor's appointment rows for a time range in a single statement.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return list of flat appointment rows ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.DoctorAppointmentView(" +
+           "a.id, a.appointmentTime, a.status, p.id, p.name, p.phone, p.email) " +
+           "FROM Appointment a JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime BETWEEN :start AND :end " +
+           "ORDER BY a.appointmentTime")
+    List<DoctorAppointmentView> findDoctorViewsByDoctorIdAndAppointmentTimeBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieve the doctor's appointment rows for a time range, filtered by partial
+     * patient name (case-insensitive), in a single statement. The trigram table
+     * narrows candidate patients before the final substring check.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param patientName normalized partial patient name (see SearchNormalizer), at least three characters
+     * @param trigrams distinct trigrams of the patient name
+     * @param trigramCount number of distinct trigrams
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return list of flat appointment rows ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.DoctorAppointmentView(" +
+           "a.id, a.appointmentTime, a.status, p.id, p.name, p.phone, p.email) " +
+           "FROM Appointment a JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND p.id IN (SELECT t.id FROM Patient t JOIN t.nameTrigrams g " +
+           "             WHERE g IN :trigrams " +
+           "             GROUP BY t.id HAVING COUNT(DISTINCT g) = :trigramCount) " +
+           "AND p.nameSearch LIKE CONCAT('%', :patientName, '%') " +
+           "AND a.appointmentTime BETWEEN :start AND :end " +
+           "ORDER BY a.appointmentTime")
+    List<DoctorAppointmentView> findDoctorViewsByDoctorIdAndPatientNameAndAppointmentTimeBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("patientName") String patientName,
+            @Param("trigrams") Collection<String> trigrams,
+            @Param("trigramCount") long trigramCount,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieve the doctor's appointment rows for a time range, filtered by patient
+     * name prefix, in a single statement. Used for terms too short to have trigrams.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param prefix normalized patient name prefix (see SearchNormalizer)
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return list of flat appointment rows ordered by appointment time
+     */
+    @Query("SELECT new com.project.back_end.DTO.DoctorAppointmentView(" +
+           "a.id, a.appointmentTime, a.status, p.id, p.name, p.phone, p.email) " +
+           "FROM Appointment a JOIN a.patient p " +
+           "WHERE a.doctor.id = :doctorId " +
+           "AND p.nameSearch LIKE CONCAT(:prefix, '%') " +
+           "AND a.appointmentTime BETWEEN :start AND :end " +
+           "ORDER BY a.appointmentTime")
+    List<DoctorAppointmentView> findDoctorViewsByDoctorIdAndPatientNamePrefixAndAppointmentTimeBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("prefix") String prefix,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Retrieve only the booked times of a doctor within a time range.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @return list of booked appointment times
+     */
+    @Query("SELECT a.appointmentTime FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end")
+    List<LocalDateTime> findAppointmentTimesByDoctorIdAndAppointmentTimeBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * Seek forward through a patient's appointments on (appointment_time, id).
+     * Returns rows strictly after the cursor, oldest first, within [from, to).
+     * 
+     * @param patientId the ID of the patient
+     * @param from inclusive lower bound of the time window
+     * @param to exclusive upper bound of the time window
+     * @param cursorTime appointment time of the cursor row
+     * @param cursorId ID of the cursor row
+     * @param limit maximum number of rows to return
+     * @return list of appointment DTOs in ascending (time, id) order
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE p.id = :patientId " +
+           "AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+           "AND (a.appointmentTime > :cursorTime " +
+           "OR (a.appointmentTime = :cursorTime AND a.id > :cursorId)) " +
+           "ORDER BY a.appointmentTime ASC, a.id ASC")
+    List<AppointmentDTO> findPatientPageAfter(
+            @Param("patientId") Long patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    /**
+     * Seek backward through a patient's appointments on (appointment_time, id).
+     * Returns rows strictly before the cursor, newest first, within [from, to).
+     * 
+     * @param patientId the ID of the patient
+     * @param from inclusive lower bound of the time window
+     * @param to exclusive upper bound of the time window
+     * @param cursorTime appointment time of the cursor row
+     * @param cursorId ID of the cursor row
+     * @param limit maximum number of rows to return
+     * @return list of appointment DTOs in descending (time, id) order
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, a.version) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE p.id = :patientId " +
+           "AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+           "AND (a.appointmentTime < :cursorTime " +
+           "OR (a.appointmentTime = :cursorTime AND a.id < :cursorId)) " +
+           "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<AppointmentDTO> findPatientPageBefore(
+            @Param("patientId") Long patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Limit limit);
+
+    /**
+     * Find IDs of appointments still marked scheduled whose time is before a cutoff.
+     * 
+     * @param cutoff appointments starting before this time are considered over
+     * @param limit maximum number of IDs to return
+     * @return list of appointment IDs, oldest first
+     */
+    @Query("SELECT a.id FROM Appointment a " +
+           "WHERE a.status = 0 AND a.appointmentTime < :cutoff " +
+           "ORDER BY a.appointmentTime")
+    List<Long> findStaleScheduledIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Mark a chunk of scheduled appointments as completed in one statement.
+     * Rows whose status already changed are left untouched.
+     * 
+     * @param ids the IDs of the appointments
+     * @return number of rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = 1, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.status = 0")
+    int completeScheduledByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find which of the given appointment IDs belong to a doctor.
+     * 
+     * @param ids the IDs of the appointments
+     * @param doctorId the ID of the doctor
+     * @return the subset of IDs owned by the doctor
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.doctor.id = :doctorId")
+    List<Long> findIdsByIdInAndDoctorId(
+            @Param("ids") Collection<Long> ids,
+            @Param("doctorId") Long doctorId);
+
+    /**
+     * Update the status of many appointments owned by a doctor in one statement.
+     * 
+     * @param status the new status to set
+     * @param ids the IDs of the appointments
+     * @param doctorId the ID of the doctor who must own them
+     * @return number of rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = :status, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.doctor.id = :doctorId")
+    int updateStatusForDoctor(
+            @Param("status") int status,
+            @Param("ids") Collection<Long> ids,
+            @Param("doctorId") Long doctorId);
+
+    /**
+     * Count all appointments of a doctor.
+     * 
+     * @param doctorId the ID of the doctor
+     * @return number of appointments
+     */
+    long countByDoctor_Id(Long doctorId);
+
+    /**
+     * Find a chunk of appointment IDs for a doctor.
+     * 
+     * @param doctorId the ID of the doctor
+     * @param limit maximum number of IDs to return
+     * @return list of appointment IDs in ascending order
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId ORDER BY a.id")
+    List<Long> findIdsByDoctorId(@Param("doctorId") Long doctorId, Limit limit);
+
+    /**
+     * Delete a chunk of appointments by ID in one statement.
+     * 
+     * @param ids the IDs of the appointments
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Move a patient's appointment to a new doctor/time in one conditional statement.
+     * The row is only updated when the version still matches, the doctor is active and
+     * offers the requested slot, and no other appointment of that doctor occupies the
+     * same slot period. The conflict check reads through a derived table so MySQL
+     * accepts the reference to the table being updated.
+     * 
+     * @param id the ID of the appointment
+     * @param patientId the ID of the patient who must own the appointment
+     * @param version the version the client last read
+     * @param doctorId the ID of the new doctor
+     * @param appointmentTime the new appointment time
+     * @param status the new status
+     * @param slot the slot period of the new time ("AM" or "PM")
+     * @param slotStart inclusive start of the slot period
+     * @param slotEnd exclusive end of the slot period
+     * @return 1 if the appointment was updated, 0 otherwise
+     */
+    // Only appointments is written; without the space Hibernate empties every cache region
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments"))
+    @Query(value = "UPDATE appointments a " +
+           "SET a.doctor_id = :doctorId, a.appointment_time = :appointmentTime, " +
+           "a.status = :status, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.patient_id = :patientId AND a.version = :version " +
+           "AND EXISTS (SELECT 1 FROM doctors d " +
+           "JOIN doctor_available_times t ON t.doctor_id = d.id " +
+           "WHERE d.id = :doctorId AND d.active = TRUE AND t.time_slot = :slot) " +
+           "AND NOT EXISTS (SELECT 1 FROM (SELECT b.id FROM appointments b " +
+           "WHERE b.doctor_id = :doctorId " +
+           "AND b.appointment_time >= :slotStart AND b.appointment_time < :slotEnd " +
+           "AND b.id <> :id LIMIT 1) conflict)",
+           nativeQuery = true)
+    int rescheduleIfAvailable(
+            @Param("id") Long id,
+            @Param("patientId") Long patientId,
+            @Param("version") Long version,
+            @Param("doctorId") Long doctorId,
+            @Param("appointmentTime") LocalDateTime appointmentTime,
+            @Param("status") int status,
+            @Param("slot") String slot,
+            @Param("slotStart") LocalDateTime slotStart,
+            @Param("slotEnd") LocalDateTime slotEnd);
+
+    /**
+     * Find the owner and version of an appointment, used to explain a rejected update.
+     * 
+     * @param id the ID of the appointment
+     * @param patientId the ID of the patient who must own the appointment
+     * @return the current version, or empty if no such appointment belongs to the patient
+     */
+    @Query("SELECT a.version FROM Appointment a WHERE a.id = :id AND a.patient.id = :patientId")
+    Optional<Long> findVersionByIdAndPatientId(
+            @Param("id") Long id,
+            @Param("patientId") Long patientId);
+
+    /**
+     * Count appointments per doctor and status in one aggregate statement.
+     * 
+     * @return one row per (doctor, status) pair that has appointments
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentStatusCount(a.doctor.id, a.status, COUNT(a)) " +
+           "FROM Appointment a GROUP BY a.doctor.id, a.status")
+    List<AppointmentStatusCount> countByDoctorAndStatus();
+
+    /**
+     * Count a patient's appointments per status in one aggregate statement.
+     * 
+     * @param patientId the ID of the patient
+     * @return one row per status the patient has appointments in
+     */
+    @Query("SELECT new com.project.back_end.DTO.AppointmentStatusCount(a.patient.id, a.status, COUNT(a)) " +
+           "FROM Appointment a WHERE a.patient.id = :patientId GROUP BY a.patient.id, a.status")
+    List<AppointmentStatusCount> countByStatusForPatient(@Param("patientId") Long patientId);
+}
@@ -1,14 +1,21 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.project.back_end.models.Doctor;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
@@ -21,33 +28,71 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Doctor findByEmail(String email);
 
     /**
-     * Find doctors by partial name match.
+     * Find all active doctors.
      * 
-     * @param name partial name to search for
-     * @return list of doctors whose name contains the search string
+     * @return list of doctors not pending deletion
      */
-    @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
-    List<Doctor> findByNameLike(@Param("name") String name);
+    List<Doctor> findByActiveTrue();
 
     /**
-     * Filter doctors by partial name and exact specialty (case-insensitive).
+     * Find active doctors whose normalized name starts with a prefix (index range scan).
      * 
-     * @param name partial name to search for (case-insensitive)
-     * @param specialty specialty to match exactly (case-insensitive)
-     * @return list of filtered doctors
+     * @param prefix normalized prefix (see SearchNormalizer)
+     * @return list of doctors whose name starts with the prefix
      */
-    @Query("SELECT d FROM Doctor d " +
-           "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
-           "AND LOWER(d.specialty) = LOWER(:specialty)")
-    List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(
-            @Param("name") String name,
-            @Param("specialty") String specialty);
+    List<Doctor> findByNameSearchStartingWithAndActiveTrue(String prefix);
 
     /**
-     * Find doctors by specialty, ignoring case.
+     * Find active doctors whose normalized name contains a term, using the trigram table
+     * to narrow candidates before the final substring check.
+     * The candidates are joined as a derived table rather than an IN subquery: MySQL
+     * cannot turn an IN over GROUP BY into a semi-join and would scan every doctor.
+     * 
+     * @param term normalized search term (see SearchNormalizer), at least three characters
+     * @param trigrams distinct trigrams of the term
+     * @param trigramCount number of distinct trigrams
+     * @return list of doctors whose name contains the term
+     */
+    @Query(value = "SELECT d.* FROM doctors d " +
+           "JOIN (SELECT g.doctor_id FROM doctor_name_trigrams g " +
+           "      WHERE g.trigram IN (:trigrams) " +
+           "      GROUP BY g.doctor_id HAVING COUNT(*) = :trigramCount) m ON m.doctor_id = d.id " +
+           "WHERE d.name_search LIKE CONCAT('%', :term, '%') " +
+           "AND d.active = TRUE",
+           nativeQuery = true)
+    List<Doctor> findByNameSearchContaining(
+            @Param("term") String term,
+            @Param("trigrams") Collection<String> trigrams,
+            @Param("trigramCount") long trigramCount);
+
+    /**
+     * Find active doctors by specialty.
+     * Matching is case-insensitive through the column's collation, which V13 pins to
+     * utf8mb4_0900_ai_ci, so the plain equality can use idx_doctors_specialty.
      * 
      * @param specialty the specialty to search for
      * @return list of doctors with the matching specialty
      */
-    List<Doctor> findBySpecialtyIgnoreCase(String specialty);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT d FROM Doctor d WHERE d.specialty = :specialty AND d.active = true")
+    List<Doctor> findBySpecialty(@Param("specialty") String specialty);
+
+    /**
+     * Find IDs of doctors pending deletion.
+     * 
+     * @return list of inactive doctor IDs
+     */
+    @Query("SELECT d.id FROM Doctor d WHERE d.active = false")
+    List<Long> findIdsByActiveFalse();
+
+    /**
+     * Soft-disable a doctor so they disappear from listings and search.
+     * 
+     * @param id the ID of the doctor
+     * @return 1 if the doctor was active and is now disabled, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Doctor d SET d.active = false WHERE d.id = :id AND d.active = true")
+    int deactivate(@Param("id") Long id);
+}
@@ -1,8 +1,14 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.project.back_end.DTO.PatientContact;
 import com.project.back_end.models.Patient;
 
 @Repository
@@ -17,11 +23,40 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Patient findByEmail(String email);
 
     /**
-     * Find a patient using either email or phone number.
+     * Check whether a patient is registered with this email (unique index lookup).
      * 
-     * @param email the email address to search for
-     * @param phone the phone number to search for
-     * @return the Patient entity matching either email or phone, or null if not found
+     * @param email the normalized email address
+     * @return true if a patient with the email exists
+     */
+    boolean existsByEmail(String email);
+
+    /**
+     * Check whether a patient is registered with this phone number (unique index lookup).
+     * 
+     * @param phone the normalized phone number
+     * @return true if a patient with the phone number exists
+     */
+    boolean existsByPhone(String phone);
+
+    /**
+     * Find only the name of a patient, without loading the entity.
+     * 
+     * @param id the ID of the patient
+     * @return the patient's name, or null if not found
+     */
+    @Query("SELECT p.name FROM Patient p WHERE p.id = :id")
+    String findNameById(@Param("id") Long id);
+
+    /**
+     * Find which of the given emails and phones are already registered, in one statement.
+     * 
+     * @param emails normalized email addresses
+     * @param phones normalized phone numbers
+     * @return contacts of the existing patients matching any of them
      */
-    Patient findByEmailOrPhone(String email, String phone);
-}
\ No newline at end of file
+    @Query("SELECT new com.project.back_end.DTO.PatientContact(p.email, p.phone) FROM Patient p " +
+           "WHERE p.email IN :emails OR p.phone IN :phones")
+    List<PatientContact> findContactsByEmailInOrPhoneIn(
+            @Param("emails") Collection<String> emails,
+            @Param("phones") Collection<String> phones);
+}
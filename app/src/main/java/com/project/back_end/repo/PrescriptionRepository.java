@@ -1,22 +1,29 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Prescription;
 
 @Repository
 public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
-    
-    // This method should already exist
+
     List<Prescription> findByAppointmentId(Long appointmentId);
-    
-    // Add these missing methods:
-    
-    List<Prescription> findByDoctorId(Long doctorId);
-    
 
-    List<Prescription> findByMedicationContainingIgnoreCase(String medicationName);
+    // Single $in query served by uk_appointment_id
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    // Returns the removed documents, so callers can evict them from the cache by key
+    List<Prescription> deleteByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    // A bounded chunk of a doctor's prescriptions, keys only, served by idx_doctor_prescribed_date_id
+    @Query(value = "{ 'doctorId': ?0 }", fields = "{ '_id': 1, 'appointmentId': 1 }")
+    List<Prescription> findKeysByDoctorId(Long doctorId, Limit limit);
+
+    long deleteByIdIn(Collection<String> ids);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.project.back_end.repo;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.Prescription;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the prescriptions collection, on the reactive driver.
+ */
+@Repository
+public interface ReactivePrescriptionRepository extends ReactiveMongoRepository<Prescription, String> {
+
+    // At most one per appointment (uk_appointment_id)
+    Mono<Prescription> findByAppointmentId(Long appointmentId);
+
+    Flux<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+}
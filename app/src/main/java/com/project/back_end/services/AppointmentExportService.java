@@ -0,0 +1,148 @@
+package com.project.back_end.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.DTO.AppointmentExportRow;
+import com.project.back_end.repo.AppointmentRepository;
+
+@Service
+public class AppointmentExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String CSV_HEADER = "id,doctor_name,patient_name,appointment_time,status\n";
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Autowired
+    public AppointmentExportService(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * Check whether an export format is supported.
+     * 
+     * @param format the requested format
+     * @return true for "csv" or "ndjson"
+     */
+    public boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equalsIgnoreCase(format) || FORMAT_NDJSON.equalsIgnoreCase(format);
+    }
+
+    /**
+     * Stream appointments as CSV or NDJSON straight from a database cursor.
+     * Each row is written and discarded as soon as it is read, so memory use
+     * stays flat regardless of how many appointments match.
+     * 
+     * @param doctorId the ID of the doctor, or null for all doctors
+     * @param start the start time of the range
+     * @param end the end time of the range
+     * @param format "csv" or "ndjson"
+     * @param out the response stream to write to
+     * @throws IOException if writing to the response fails
+     */
+    @Transactional(readOnly = true)
+    public void exportAppointments(Long doctorId, LocalDateTime start, LocalDateTime end,
+                                   String format, OutputStream out) throws IOException {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+
+        try (Stream<AppointmentExportRow> rows = doctorId == null
+                ? appointmentRepository.streamExportRows(start, end)
+                : appointmentRepository.streamExportRowsForDoctor(doctorId, start, end)) {
+            Iterator<AppointmentExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AppointmentExportRow row = iterator.next();
+                if (csv) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writeJsonRow(writer, row);
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, AppointmentExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csvField(row.doctorName()));
+        writer.write(',');
+        writer.write(csvField(row.patientName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.appointmentTime()));
+        writer.write(',');
+        writer.write(row.statusText());
+        writer.write('\n');
+    }
+
+    private void writeJsonRow(Writer writer, AppointmentExportRow row) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(String.valueOf(row.id()));
+        writer.write(",\"doctorName\":");
+        writer.write(jsonString(row.doctorName()));
+        writer.write(",\"patientName\":");
+        writer.write(jsonString(row.patientName()));
+        writer.write(",\"appointmentTime\":");
+        writer.write(jsonString(String.valueOf(row.appointmentTime())));
+        writer.write(",\"status\":");
+        writer.write(jsonString(row.statusText()));
+        writer.write("}\n");
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+}
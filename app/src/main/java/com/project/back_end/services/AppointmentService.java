@@ -4,17 +4,25 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.AppointmentChangedEvent;
+import com.project.back_end.DTO.DoctorAppointmentView;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.SearchNormalizer;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -22,23 +30,25 @@ import com.project.back_end.repo.PatientRepository;
 @Service
 public class AppointmentService {
 
+    private static final int MAX_BULK_STATUS_IDS = 500;
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final TokenService tokenService;
-    private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository,
                               PatientRepository patientRepository,
                               DoctorRepository doctorRepository,
                               TokenService tokenService,
-                              AuthService authService) {
+                              ApplicationEventPublisher eventPublisher) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.tokenService = tokenService;
-        this.authService = authService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,6 +61,8 @@ public class AppointmentService {
     public int bookAppointment(Appointment appointment) {
         try {
             appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(
+                    AppointmentChangedEvent.booked(appointment.getDoctor().getId(), appointment.getStatus()));
             return 1;
         } catch (Exception e) {
             e.printStackTrace();
@@ -60,43 +72,69 @@ public class AppointmentService {
 
     /**
      * Update an existing appointment.
+     * The new slot is validated and the change applied by a single conditional
+     * statement guarded by the appointment's version; a rejected update is then
+     * explained with one extra lookup.
      * 
-     * @param appointment the appointment object with updated data
+     * @param appointment the appointment object with updated data and the version last read
+     * @param token the authorization token of the patient
      * @return response entity with success or error message
      */
-    @Transactional
-    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
+    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment, String token) {
         Map<String, String> response = new HashMap<>();
         
-        Optional<Appointment> existingAppointmentOpt = appointmentRepository.findById(appointment.getId());
-        if (existingAppointmentOpt.isEmpty()) {
-            response.put("error", "Appointment not found");
+        if (appointment.getId() == null || appointment.getAppointmentTime() == null
+                || appointment.getDoctor() == null || appointment.getDoctor().getId() == null) {
+            response.put("error", "Appointment id, doctor and time are required");
             return ResponseEntity.badRequest().body(response);
         }
-        
-        Appointment existingAppointment = existingAppointmentOpt.get();
-        
-        // Check if patient ID matches
-        if (!existingAppointment.getPatient().getId().equals(appointment.getPatient().getId())) {
-            response.put("error", "Patient ID does not match");
+        if (appointment.getVersion() == null) {
+            response.put("error", "Appointment version is required");
             return ResponseEntity.badRequest().body(response);
         }
         
-        // Validate the appointment update
-        if (authService.validateAppointment(appointment) == 0) {
-            response.put("error", "Appointment validation failed");
+        if (!appointment.getAppointmentTime().isAfter(LocalDateTime.now())) {
+            response.put("error", "Appointment time must be in the future");
             return ResponseEntity.badRequest().body(response);
         }
         
+        Long patientId = tokenService.extractPatientId(token);
+        if (patientId == null) {
+            response.put("error", "Invalid patient token");
+            return ResponseEntity.status(401).body(response);
+        }
+        
+        LocalDateTime appointmentTime = appointment.getAppointmentTime();
+        boolean morning = appointmentTime.getHour() < 12;
+        LocalDateTime slotStart = appointmentTime.toLocalDate().atTime(morning ? LocalTime.MIDNIGHT : LocalTime.NOON);
+        LocalDateTime slotEnd = slotStart.plusHours(12);
+        
         try {
-            // Update appointment details
-            existingAppointment.setAppointmentTime(appointment.getAppointmentTime());
-            existingAppointment.setDoctor(appointment.getDoctor());
-            existingAppointment.setStatus(appointment.getStatus());
+            int updated = appointmentRepository.rescheduleIfAvailable(
+                    appointment.getId(), patientId, appointment.getVersion(),
+                    appointment.getDoctor().getId(), appointmentTime, appointment.getStatus(),
+                    morning ? "AM" : "PM", slotStart, slotEnd);
+            if (updated == 1) {
+                // May have moved to another doctor; the cached statistics cannot tell
+                eventPublisher.publishEvent(AppointmentChangedEvent.bulk());
+                response.put("message", "Appointment updated successfully");
+                response.put("version", String.valueOf(appointment.getVersion() + 1));
+                return ResponseEntity.ok(response);
+            }
             
-            appointmentRepository.save(existingAppointment);
-            response.put("message", "Appointment updated successfully");
-            return ResponseEntity.ok(response);
+            Optional<Long> currentVersion = appointmentRepository
+                    .findVersionByIdAndPatientId(appointment.getId(), patientId);
+            if (currentVersion.isEmpty()) {
+                response.put("error", "Appointment not found");
+                return ResponseEntity.status(404).body(response);
+            }
+            if (!currentVersion.get().equals(appointment.getVersion())) {
+                response.put("error", "Appointment was modified by another request, reload and try again");
+                response.put("version", String.valueOf(currentVersion.get()));
+                return ResponseEntity.status(409).body(response);
+            }
+            response.put("error", "Requested time slot is not available");
+            return ResponseEntity.status(409).body(response);
         } catch (Exception e) {
             e.printStackTrace();
             response.put("error", "Failed to update appointment: " + e.getMessage());
@@ -133,6 +171,8 @@ public class AppointmentService {
         
         try {
             appointmentRepository.delete(appointment);
+            eventPublisher.publishEvent(
+                    AppointmentChangedEvent.cancelled(appointment.getDoctor().getId(), appointment.getStatus()));
             response.put("message", "Appointment cancelled successfully");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -161,9 +201,9 @@ public class AppointmentService {
             return response;
         }
         
-        // Verify doctor exists
-        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isEmpty()) {
+        // Verify doctor exists; findById is served from the second-level cache
+        String doctorName = doctorRepository.findById(doctorId).map(Doctor::getName).orElse(null);
+        if (doctorName == null) {
             response.put("error", "Doctor not found");
             return response;
         }
@@ -172,21 +212,30 @@ public class AppointmentService {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
         
-        List<Appointment> appointments;
+        List<DoctorAppointmentView> appointments;
         
         if (pname != null && !pname.trim().isEmpty()) {
-            // Filter by patient name
-            appointments = appointmentRepository
-                .findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                    doctorId, pname, startOfDay, endOfDay);
+            // Filter by patient name: trigram-assisted "contains" search, or a prefix
+            // match for terms shorter than three characters
+            String term = SearchNormalizer.normalize(pname);
+            Set<String> trigrams = SearchNormalizer.trigrams(term);
+            if (trigrams.isEmpty()) {
+                appointments = appointmentRepository
+                    .findDoctorViewsByDoctorIdAndPatientNamePrefixAndAppointmentTimeBetween(
+                        doctorId, term, startOfDay, endOfDay);
+            } else {
+                appointments = appointmentRepository
+                    .findDoctorViewsByDoctorIdAndPatientNameAndAppointmentTimeBetween(
+                        doctorId, term, trigrams, trigrams.size(), startOfDay, endOfDay);
+            }
         } else {
             // Get all appointments for the day
             appointments = appointmentRepository
-                .findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
+                .findDoctorViewsByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
         }
         
         response.put("appointments", appointments);
-        response.put("doctorName", doctorOpt.get().getName());
+        response.put("doctorName", doctorName);
         response.put("date", date.toString());
         response.put("totalAppointments", appointments.size());
         
@@ -211,7 +260,10 @@ public class AppointmentService {
         }
         
         try {
+            Appointment appointment = appointmentOpt.get();
             appointmentRepository.updateStatus(status, id);
+            eventPublisher.publishEvent(new AppointmentChangedEvent(
+                    appointment.getDoctor().getId(), appointment.getStatus(), status));
             response.put("message", "Appointment status updated successfully");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -221,6 +273,69 @@ public class AppointmentService {
         }
     }
 
+    /**
+     * Change the status of many appointments owned by the doctor in the token.
+     * Ownership is checked with one query and the change applied with one UPDATE.
+     * 
+     * @param ids the IDs of the appointments
+     * @param status the new status
+     * @param token the doctor's authorization token
+     * @return response entity with the outcome for each requested ID
+     */
+    @Transactional
+    public ResponseEntity<Map<String, Object>> changeStatuses(List<Long> ids, Integer status, String token) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Long doctorId = tokenService.extractDoctorId(token);
+        if (doctorId == null) {
+            response.put("error", "Invalid token or user is not a doctor");
+            return ResponseEntity.status(403).body(response);
+        }
+        
+        if (status == null || (status != 0 && status != 1)) {
+            response.put("error", "Status must be 0 (Scheduled) or 1 (Completed)");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        if (ids == null || ids.isEmpty()) {
+            response.put("error", "At least one appointment ID is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+        if (requestedIds.size() > MAX_BULK_STATUS_IDS) {
+            response.put("error", "At most " + MAX_BULK_STATUS_IDS + " appointments can be updated at once");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            Set<Long> ownedIds = new HashSet<>(
+                    appointmentRepository.findIdsByIdInAndDoctorId(requestedIds, doctorId));
+            
+            int updated = 0;
+            if (!ownedIds.isEmpty()) {
+                updated = appointmentRepository.updateStatusForDoctor(status, ownedIds, doctorId);
+                eventPublisher.publishEvent(AppointmentChangedEvent.bulk());
+            }
+            
+            Map<Long, String> results = new LinkedHashMap<>();
+            for (Long id : requestedIds) {
+                results.put(id, ownedIds.contains(id) ? "updated" : "not_found");
+            }
+            
+            response.put("results", results);
+            response.put("updated", updated);
+            response.put("notFound", requestedIds.size() - ownedIds.size());
+            response.put("status", status);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("error", "Failed to update appointment statuses: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * Get all appointments for a specific patient.
      * 
@@ -0,0 +1,154 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.project.back_end.DTO.AppointmentChangedEvent;
+import com.project.back_end.DTO.AppointmentStatistics;
+import com.project.back_end.DTO.AppointmentStatusCount;
+import com.project.back_end.repo.AppointmentRepository;
+
+/**
+ * Appointment counts for the dashboards, computed with GROUP BY queries
+ * instead of initializing appointment collections.
+ * The per-doctor table is cached for a short TTL and kept current between
+ * reloads by applying booking/cancellation deltas after commit. A delta is
+ * only applied when its event was created after the table was loaded;
+ * older events may already be counted by the load, so they drop the cache
+ * instead, as do changes that cannot be expressed as a delta.
+ */
+@Service
+public class AppointmentStatisticsService {
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${appointments.statistics.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Object lock = new Object();
+    // Guarded by lock; the counts map inside is mutated by deltas
+    private Snapshot snapshot;
+    // Guarded by lock; number of change events handled so far
+    private long changesSeen;
+
+    @Autowired
+    public AppointmentStatisticsService(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * Get appointment counts for every doctor that has appointments.
+     * 
+     * @return map with per-doctor statistics and the time the counts were loaded
+     */
+    public Map<String, Object> getDoctorStatistics() {
+        Snapshot current;
+        long changesBefore;
+        synchronized (lock) {
+            current = snapshot;
+            changesBefore = changesSeen;
+        }
+
+        if (current == null || System.currentTimeMillis() - current.loadedAtMillis() > ttlMs) {
+            // Queried outside the lock, so change events are never held up by a reload
+            long loadedAtMillis = System.currentTimeMillis();
+            LocalDateTime loadedAt = LocalDateTime.now();
+            Map<Long, Map<Integer, Long>> counts = new TreeMap<>();
+            for (AppointmentStatusCount row : appointmentRepository.countByDoctorAndStatus()) {
+                counts.computeIfAbsent(row.ownerId(), id -> new HashMap<>()).put(row.status(), row.count());
+            }
+            current = new Snapshot(counts, AppointmentChangedEvent.lastSequence(), loadedAtMillis, loadedAt);
+            synchronized (lock) {
+                // A change handled while the query ran may or may not be in it: serve the
+                // result to this caller, but let the next one load again
+                if (changesSeen == changesBefore) {
+                    snapshot = current;
+                }
+            }
+        }
+
+        List<AppointmentStatistics> doctors;
+        synchronized (lock) {
+            doctors = new ArrayList<>(current.counts().size());
+            for (Map.Entry<Long, Map<Integer, Long>> entry : current.counts().entrySet()) {
+                doctors.add(toStatistics(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("doctors", doctors);
+        response.put("count", doctors.size());
+        response.put("loadedAt", current.loadedAt());
+        return response;
+    }
+
+    /**
+     * Get appointment counts for one patient (single indexed aggregate, not cached).
+     * 
+     * @param patientId the ID of the patient
+     * @return the patient's statistics
+     */
+    public AppointmentStatistics getPatientStatistics(Long patientId) {
+        Map<Integer, Long> byStatus = new HashMap<>();
+        for (AppointmentStatusCount row : appointmentRepository.countByStatusForPatient(patientId)) {
+            byStatus.put(row.status(), row.count());
+        }
+        return toStatistics(patientId, byStatus);
+    }
+
+    /**
+     * Keep the cached table current after an appointment change commits.
+     * 
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        synchronized (lock) {
+            changesSeen++;
+            if (snapshot == null) {
+                return;
+            }
+            if (event.isBulk() || event.sequence() <= snapshot.loadedThroughSequence()) {
+                snapshot = null;
+                return;
+            }
+            Map<Integer, Long> byStatus = snapshot.counts().computeIfAbsent(event.doctorId(), id -> new HashMap<>());
+            if (event.fromStatus() != null) {
+                byStatus.merge(event.fromStatus(), -1L, Long::sum);
+            }
+            if (event.toStatus() != null) {
+                byStatus.merge(event.toStatus(), 1L, Long::sum);
+            }
+        }
+    }
+
+    private static AppointmentStatistics toStatistics(Long id, Map<Integer, Long> byStatus) {
+        long total = 0;
+        for (long count : byStatus.values()) {
+            total += count;
+        }
+        return new AppointmentStatistics(id,
+                byStatus.getOrDefault(0, 0L),
+                byStatus.getOrDefault(1, 0L),
+                total);
+    }
+
+    /**
+     * A loaded per-doctor table. Events with a sequence up to loadedThroughSequence
+     * were created before the query returned, so their changes may be in the counts.
+     */
+    private record Snapshot(Map<Long, Map<Integer, Long>> counts,
+                            long loadedThroughSequence,
+                            long loadedAtMillis,
+                            LocalDateTime loadedAt) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.DTO.AppointmentChangedEvent;
+import com.project.back_end.repo.AppointmentRepository;
+
+/**
+ * Periodically moves appointments whose time has passed from scheduled (0)
+ * to completed (1). Each chunk is a short bulk UPDATE on primary keys in its
+ * own transaction, and each run is capped so the sweeper never holds locks
+ * on the appointments table for long, with a tighter cap during clinic hours.
+ */
+@Component
+public class AppointmentStatusSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusSweeper.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${appointments.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointments.sweeper.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${appointments.sweeper.max-rows-per-run:5000}")
+    private int maxRowsPerRun;
+
+    @Value("${appointments.sweeper.max-rows-per-run-clinic-hours:1000}")
+    private int maxRowsPerRunClinicHours;
+
+    @Value("${appointments.sweeper.clinic-hours-start:08:00}")
+    private String clinicHoursStart;
+
+    @Value("${appointments.sweeper.clinic-hours-end:18:00}")
+    private String clinicHoursEnd;
+
+    // Appointments last one hour, so they are over one hour after they start
+    @Value("${appointments.sweeper.grace-minutes:60}")
+    private long graceMinutes;
+
+    @Autowired
+    public AppointmentStatusSweeper(AppointmentRepository appointmentRepository,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.appointmentRepository = appointmentRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Sweep past appointments in bounded chunks.
+     * 
+     * @return number of appointments marked completed in this run
+     */
+    @Scheduled(fixedDelayString = "${appointments.sweeper.interval-ms:60000}",
+               initialDelayString = "${appointments.sweeper.initial-delay-ms:30000}")
+    public int sweep() {
+        if (!enabled) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(graceMinutes);
+        int budget = isClinicHours(now.toLocalTime()) ? maxRowsPerRunClinicHours : maxRowsPerRun;
+        int completed = 0;
+
+        try {
+            while (completed < budget) {
+                int batch = Math.min(chunkSize, budget - completed);
+                List<Long> ids = appointmentRepository.findStaleScheduledIds(cutoff, Limit.of(batch));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                completed += appointmentRepository.completeScheduledByIds(ids);
+
+                if (ids.size() < batch) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Appointment status sweep failed after {} updates", completed, e);
+        }
+
+        if (completed > 0) {
+            log.info("Marked {} past appointments as completed", completed);
+            eventPublisher.publishEvent(AppointmentChangedEvent.bulk());
+        }
+        return completed;
+    }
+
+    private boolean isClinicHours(LocalTime time) {
+        return !time.isBefore(LocalTime.parse(clinicHoursStart)) && time.isBefore(LocalTime.parse(clinicHoursEnd));
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.stereotype.Service;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ContactNormalizer;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
@@ -31,6 +32,8 @@ public class AuthService {
     private final PatientRepository patientRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
+    private final PatientContactFilter patientContactFilter;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Autowired
     public AuthService(TokenService tokenService,
@@ -38,13 +41,17 @@ public class AuthService {
                    DoctorRepository doctorRepository,
                    PatientRepository patientRepository,
                    DoctorService doctorService,
-                   PatientService patientService) {
+                   PatientService patientService,
+                   PatientContactFilter patientContactFilter,
+                   LastLoginRecorder lastLoginRecorder) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.doctorService = doctorService;
         this.patientService = patientService;
+        this.patientContactFilter = patientContactFilter;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
     /**
@@ -118,7 +125,7 @@ public class AuthService {
     try {
         Doctor doctor = doctorRepository.findByEmail(login.getEmail());
         
-        if (doctor == null) {
+        if (doctor == null || !doctor.isActive()) {
             response.put("error", "Doctor not found");
             return ResponseEntity.status(401).body(response);
         }
@@ -241,8 +248,8 @@ public class AuthService {
             }
             
             Optional<Doctor> doctorOpt = doctorRepository.findById(appointment.getDoctor().getId());
-            if (doctorOpt.isEmpty()) {
-                return -1; // Doctor doesn't exist
+            if (doctorOpt.isEmpty() || !doctorOpt.get().isActive()) {
+                return -1; // Doctor doesn't exist or is being deleted
             }
             
             Doctor doctor = doctorOpt.get();
@@ -279,9 +286,13 @@ public class AuthService {
      */
     public boolean validatePatient(Patient patient) {
         try {
-            Patient existingPatient = patientRepository.findByEmailOrPhone(
-                    patient.getEmail(), patient.getPhone());
-            return existingPatient == null; // True if no patient found
+            // Definitely new contact details need no query at all
+            if (!patientContactFilter.mightContain(patient.getEmail(), patient.getPhone())) {
+                return true;
+            }
+            // Two unique index probes instead of an OR that no single index serves
+            return !patientRepository.existsByEmail(ContactNormalizer.normalizeEmail(patient.getEmail()))
+                    && !patientRepository.existsByPhone(ContactNormalizer.normalizePhone(patient.getPhone()));
         } catch (Exception e) {
             e.printStackTrace();
             return false; // On error, assume not valid
@@ -298,7 +309,7 @@ public class AuthService {
         Map<String, String> response = new HashMap<>();
         
         try {
-            Patient patient = patientRepository.findByEmail(login.getEmail());
+            Patient patient = patientRepository.findByEmail(ContactNormalizer.normalizeEmail(login.getEmail()));
             
             if (patient == null) {
                 response.put("error", "Patient not found");
@@ -310,6 +321,8 @@ public class AuthService {
                 return ResponseEntity.status(401).body(response);
             }
             
+            lastLoginRecorder.recordLogin(patient.getId());
+            
             // Generate token
             String token = tokenService.generateToken(patient.getId(), "PATIENT");
             response.put("token", token);
@@ -339,22 +352,13 @@ public class AuthService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Extract patient email from token
-            String email = tokenService.extractEmail(token);
-            if (email == null) {
+            // Identity comes from the verified userId claim; no patient lookup needed
+            Long patientId = tokenService.extractPatientId(token);
+            if (patientId == null) {
                 response.put("error", "Invalid token");
                 return ResponseEntity.status(401).body(response);
             }
             
-            // Get patient by email
-            Patient patient = patientRepository.findByEmail(email);
-            if (patient == null) {
-                response.put("error", "Patient not found");
-                return ResponseEntity.status(404).body(response);
-            }
-            
-            Long patientId = patient.getId();
-            
             // Apply filters based on provided parameters
             if (condition != null && !condition.trim().isEmpty() &&
                 name != null && !name.trim().isEmpty()) {
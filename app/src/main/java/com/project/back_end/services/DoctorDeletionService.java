@@ -0,0 +1,176 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.DTO.AppointmentChangedEvent;
+import com.project.back_end.DTO.DoctorDeletionProgress;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+/**
+ * Deletes doctors asynchronously. The doctor is soft-disabled immediately,
+ * then appointments and prescriptions are purged in bounded chunks, each in
+ * its own short transaction, before the doctor row itself is removed.
+ */
+@Service
+public class DoctorDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDeletionService.class);
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionCache prescriptionCache;
+    private final TaskExecutor doctorPurgeExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, DoctorDeletionProgress> jobs = new ConcurrentHashMap<>();
+
+    @Value("${doctors.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${doctors.purge.retention:1h}")
+    private Duration retention;
+
+    @Autowired
+    public DoctorDeletionService(DoctorRepository doctorRepository,
+                                 AppointmentRepository appointmentRepository,
+                                 PrescriptionRepository prescriptionRepository,
+                                 PrescriptionCache prescriptionCache,
+                                 @Qualifier("doctorPurgeExecutor") TaskExecutor doctorPurgeExecutor,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.prescriptionCache = prescriptionCache;
+        this.doctorPurgeExecutor = doctorPurgeExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Disable a doctor and schedule the purge of their history.
+     * 
+     * @param doctorId the ID of the doctor to delete
+     * @return the deletion progress, or null if no such doctor exists
+     */
+    public DoctorDeletionProgress requestDeletion(Long doctorId) {
+        if (doctorRepository.deactivate(doctorId) == 0) {
+            // Either unknown, or already being deleted
+            DoctorDeletionProgress existing = jobs.get(doctorId);
+            if (existing != null || !doctorRepository.existsById(doctorId)) {
+                return existing;
+            }
+        }
+        return schedule(doctorId);
+    }
+
+    /**
+     * Get the progress of a doctor deletion.
+     * 
+     * @param doctorId the ID of the doctor
+     * @return the deletion progress, or null if no deletion was requested
+     */
+    public DoctorDeletionProgress getProgress(Long doctorId) {
+        return jobs.get(doctorId);
+    }
+
+    /**
+     * Resume purges interrupted by a restart: any doctor still inactive has a pending deletion.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingDeletions() {
+        try {
+            List<Long> pending = doctorRepository.findIdsByActiveFalse();
+            pending.forEach(this::schedule);
+            if (!pending.isEmpty()) {
+                log.info("Resuming deletion of {} doctors", pending.size());
+            }
+        } catch (Exception e) {
+            log.error("Could not resume pending doctor deletions", e);
+        }
+    }
+
+    /**
+     * Forget finished deletions once their outcome has been available for the retention period.
+     */
+    @Scheduled(fixedDelayString = "${doctors.purge.prune-interval-ms:600000}")
+    public void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(progress -> {
+            LocalDateTime finishedAt = progress.getFinishedAt();
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        });
+    }
+
+    private DoctorDeletionProgress schedule(Long doctorId) {
+        DoctorDeletionProgress progress = new DoctorDeletionProgress(doctorId);
+        DoctorDeletionProgress existing = jobs.putIfAbsent(doctorId, progress);
+        if (existing != null) {
+            // Only a failed job is retried, and only by the caller whose swap wins
+            if (existing.getState() != DoctorDeletionProgress.State.FAILED
+                    || !jobs.replace(doctorId, existing, progress)) {
+                return jobs.getOrDefault(doctorId, existing);
+            }
+        }
+        doctorPurgeExecutor.execute(() -> purge(progress));
+        return progress;
+    }
+
+    private void purge(DoctorDeletionProgress progress) {
+        Long doctorId = progress.getDoctorId();
+        try {
+            progress.start(appointmentRepository.countByDoctor_Id(doctorId));
+
+            while (true) {
+                List<Long> ids = appointmentRepository.findIdsByDoctorId(doctorId, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                // Prescriptions first, so an interrupted purge never leaves orphans behind
+                List<Prescription> prescriptions = prescriptionRepository.deleteByAppointmentIdIn(ids);
+                prescriptionCache.evictAll(prescriptions);
+                int appointments = appointmentRepository.deleteByIdIn(ids);
+                progress.addDeleted(appointments, prescriptions.size());
+            }
+
+            // Prescriptions whose appointment was already gone, also in bounded chunks
+            while (true) {
+                List<Prescription> orphans = prescriptionRepository.findKeysByDoctorId(doctorId, Limit.of(chunkSize));
+                if (orphans.isEmpty()) {
+                    break;
+                }
+                long deleted = prescriptionRepository.deleteByIdIn(orphans.stream().map(Prescription::getId).toList());
+                prescriptionCache.evictAll(orphans);
+                progress.addDeleted(0, deleted);
+            }
+
+            // Appointments are gone, so the cascade has nothing left to load
+            doctorRepository.deleteById(doctorId);
+            progress.complete();
+            eventPublisher.publishEvent(AppointmentChangedEvent.bulk());
+            log.info("Deleted doctor {} ({} appointments, {} prescriptions)", doctorId,
+                    progress.getAppointmentsDeleted(), progress.getPrescriptionsDeleted());
+        } catch (Exception e) {
+            log.error("Deletion of doctor {} failed", doctorId, e);
+            progress.fail(e.getMessage());
+        }
+    }
+}
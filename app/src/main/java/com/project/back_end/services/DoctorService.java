@@ -11,14 +11,15 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.project.back_end.DTO.Login;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.SearchNormalizer;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 
@@ -48,7 +49,7 @@ public class DoctorService {
     @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
         Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isEmpty()) {
+        if (doctorOpt.isEmpty() || !doctorOpt.get().isActive()) {
             return Collections.emptyList();
         }
 
@@ -61,13 +62,13 @@ public class DoctorService {
         // Get booked appointments for the day
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments = appointmentRepository
-                .findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
+        List<LocalDateTime> bookedTimes = appointmentRepository
+                .findAppointmentTimesByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
 
         // Extract booked time slots
-        Set<String> bookedSlots = appointments.stream()
-                .map(appointment -> {
-                    LocalTime time = appointment.getAppointmentTime().toLocalTime();
+        Set<String> bookedSlots = bookedTimes.stream()
+                .map(appointmentTime -> {
+                    LocalTime time = appointmentTime.toLocalTime();
                     int hour = time.getHour();
                     return hour < 12 ? "AM" : "PM";
                 })
@@ -130,39 +131,7 @@ public class DoctorService {
      */
     @Transactional(readOnly = true)
     public List<Doctor> getDoctors() {
-        List<Doctor> doctors = doctorRepository.findAll();
-        // Eagerly load available times to avoid lazy loading issues
-        doctors.forEach(doctor -> {
-            if (doctor.getAvailableTimes() != null) {
-                doctor.getAvailableTimes().size(); // Trigger loading
-            }
-        });
-        return doctors;
-    }
-
-    /**
-     * Delete a doctor by ID.
-     * 
-     * @param id the ID of the doctor to delete
-     * @return 1 for success, -1 if doctor not found, 0 for internal error
-     */
-    @Transactional
-    public int deleteDoctor(long id) {
-        try {
-            if (!doctorRepository.existsById(id)) {
-                return -1; // Doctor not found
-            }
-            
-            // Delete all appointments for this doctor first
-            appointmentRepository.deleteAllByDoctorId(id);
-            
-            // Then delete the doctor
-            doctorRepository.deleteById(id);
-            return 1; // Success
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0; // Internal error
-        }
+        return withAvailableTimes(doctorRepository.findByActiveTrue());
     }
 
     /**
@@ -176,7 +145,7 @@ public class DoctorService {
         Map<String, String> response = new HashMap<>();
         
         Doctor doctor = doctorRepository.findByEmail(login.getEmail());
-        if (doctor == null) {
+        if (doctor == null || !doctor.isActive()) {
             response.put("error", "Doctor not found");
             return ResponseEntity.status(404).body(response);
         }
@@ -204,14 +173,7 @@ public class DoctorService {
     @Transactional(readOnly = true)
     public Map<String, Object> findDoctorByName(String name) {
         Map<String, Object> response = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findByNameLike(name);
-        
-        // Eagerly load available times
-        doctors.forEach(doctor -> {
-            if (doctor.getAvailableTimes() != null) {
-                doctor.getAvailableTimes().size();
-            }
-        });
+        List<Doctor> doctors = withAvailableTimes(searchDoctorsByName(name));
         
         response.put("doctors", doctors);
         response.put("count", doctors.size());
@@ -230,10 +192,9 @@ public class DoctorService {
     public Map<String, Object> filterDoctorsByNameSpecialityAndTime(String name, String specialty, String amOrPm) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> doctors = doctorRepository
-                .findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
+        List<Doctor> doctors = filterDoctorBySpecialty(searchDoctorsByName(name), specialty);
         
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
+        List<Doctor> filteredDoctors = filterDoctorByTime(withAvailableTimes(doctors), amOrPm);
         
         response.put("doctors", filteredDoctors);
         response.put("count", filteredDoctors.size());
@@ -253,7 +214,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> doctors = doctorRepository.findByNameLike(name);
+        List<Doctor> doctors = withAvailableTimes(searchDoctorsByName(name));
         List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
         
         response.put("doctors", filteredDoctors);
@@ -274,8 +235,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorByNameAndSpeciality(String name, String specialty) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> doctors = doctorRepository
-                .findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
+        List<Doctor> doctors = withAvailableTimes(filterDoctorBySpecialty(searchDoctorsByName(name), specialty));
         
         response.put("doctors", doctors);
         response.put("count", doctors.size());
@@ -295,7 +255,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorByTimeAndSpeciality(String specialty, String amOrPm) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        List<Doctor> doctors = withAvailableTimes(doctorRepository.findBySpecialty(specialty));
         List<Doctor> filteredDoctors = filterDoctorByTime(doctors, amOrPm);
         
         response.put("doctors", filteredDoctors);
@@ -315,7 +275,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorBySpeciality(String specialty) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
+        List<Doctor> doctors = withAvailableTimes(doctorRepository.findBySpecialty(specialty));
         
         response.put("doctors", doctors);
         response.put("count", doctors.size());
@@ -334,7 +294,7 @@ public class DoctorService {
     public Map<String, Object> filterDoctorsByTime(String amOrPm) {
         Map<String, Object> response = new HashMap<>();
         
-        List<Doctor> allDoctors = doctorRepository.findAll();
+        List<Doctor> allDoctors = withAvailableTimes(doctorRepository.findByActiveTrue());
         List<Doctor> filteredDoctors = filterDoctorByTime(allDoctors, amOrPm);
         
         response.put("doctors", filteredDoctors);
@@ -344,6 +304,54 @@ public class DoctorService {
         return response;
     }
 
+    /**
+     * Private helper method to search doctors by partial name.
+     * Terms of three or more characters go through the trigram table; shorter
+     * terms fall back to a prefix match on the normalized name index.
+     * 
+     * @param name doctor's name (can be partial)
+     * @return list of matching doctors
+     */
+    private List<Doctor> searchDoctorsByName(String name) {
+        String term = SearchNormalizer.normalize(name);
+        if (term == null || term.isEmpty()) {
+            return doctorRepository.findByActiveTrue();
+        }
+        
+        Set<String> trigrams = SearchNormalizer.trigrams(term);
+        if (trigrams.isEmpty()) {
+            return doctorRepository.findByNameSearchStartingWithAndActiveTrue(term);
+        }
+        return doctorRepository.findByNameSearchContaining(term, trigrams, trigrams.size());
+    }
+
+    /**
+     * Private helper method to load the available times of doctors returned to callers.
+     * Uses the collection's batch size, so the query count grows with pages of
+     * doctors rather than with each doctor, and cached collections need no query.
+     * 
+     * @param doctors list of doctors
+     * @return the same list, with available times initialized
+     */
+    private List<Doctor> withAvailableTimes(List<Doctor> doctors) {
+        doctors.forEach(doctor -> Hibernate.initialize(doctor.getAvailableTimes()));
+        return doctors;
+    }
+
+    /**
+     * Private helper method to filter doctors by specialty (case-insensitive).
+     * 
+     * @param doctors list of doctors to filter
+     * @param specialty doctor's specialty
+     * @return filtered list of doctors
+     */
+    private List<Doctor> filterDoctorBySpecialty(List<Doctor> doctors, String specialty) {
+        String wanted = specialty.trim();
+        return doctors.stream()
+                .filter(doctor -> doctor.getSpecialty() != null && doctor.getSpecialty().equalsIgnoreCase(wanted))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Private helper method to filter doctors by time availability.
      * 
@@ -392,7 +400,12 @@ public class DoctorService {
      */
     @Transactional(readOnly = true)
     public Doctor getDoctorById(Long id) {
-        return doctorRepository.findById(id).orElse(null);
+        return doctorRepository.findById(id).filter(Doctor::isActive)
+                .map(doctor -> {
+                    Hibernate.initialize(doctor.getAvailableTimes());
+                    return doctor;
+                })
+                .orElse(null);
     }
 
     /**
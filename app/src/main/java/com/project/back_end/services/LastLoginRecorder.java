@@ -0,0 +1,90 @@
+package com.project.back_end.services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind recorder for patient last-login timestamps.
+ * Logins only touch a concurrent map; a scheduled flush writes the latest
+ * timestamp of each patient with one batched UPDATE, so the database sees
+ * at most one write per patient per interval and login latency is unaffected.
+ */
+@Component
+public class LastLoginRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE patients SET last_login = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record a successful login; repeated logins before the next flush coalesce.
+     * 
+     * @param patientId the ID of the patient who logged in
+     */
+    public void recordLogin(Long patientId) {
+        pending.merge(patientId, LocalDateTime.now(), (current, latest) -> latest.isAfter(current) ? latest : current);
+    }
+
+    /**
+     * Write all pending timestamps in one batch.
+     * 
+     * @return number of patients written
+     */
+    @Scheduled(fixedDelayString = "${patients.last-login.flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // Only take the value we saw; a newer login stays queued for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Timestamp time = Timestamp.valueOf(entry.getValue());
+                batch.add(new Object[] {time, time, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            return batch.size();
+        } catch (Exception e) {
+            log.error("Could not write last login for {} patients, will retry", batch.size(), e);
+            for (Object[] row : batch) {
+                LocalDateTime time = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((Long) row[2], time, (current, failed) -> current.isAfter(failed) ? current : failed);
+            }
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
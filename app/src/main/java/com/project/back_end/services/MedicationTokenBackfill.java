@@ -0,0 +1,65 @@
+package com.project.back_end.services;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.models.SearchNormalizer;
+
+/**
+ * Fills medication_tokens on prescriptions written before the field existed,
+ * so medication search covers the whole collection. Documents that already
+ * have tokens are skipped, so the pass is a no-op once it has completed.
+ */
+@Component
+public class MedicationTokenBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicationTokenBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public MedicationTokenBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query query = new Query(Criteria.where("medicationTokens").exists(false));
+        query.fields().include("medication");
+        query.cursorBatchSize(BATCH_SIZE);
+
+        long updated = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+        try (Stream<Prescription> prescriptions = mongoTemplate.stream(query, Prescription.class)) {
+            for (Prescription prescription : (Iterable<Prescription>) prescriptions::iterator) {
+                bulk.updateOne(Query.query(Criteria.where("id").is(prescription.getId())),
+                        Update.update("medicationTokens", SearchNormalizer.tokens(prescription.getMedication())));
+                if (++pending == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                updated += bulk.execute().getModifiedCount();
+            }
+            if (updated > 0) {
+                log.info("Backfilled medication tokens on {} prescriptions", updated);
+            }
+        } catch (Exception e) {
+            log.error("Medication token backfill stopped after {} prescriptions; it resumes on next start", updated, e);
+        }
+    }
+}
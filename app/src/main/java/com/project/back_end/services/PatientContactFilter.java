@@ -0,0 +1,145 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.ContactNormalizer;
+
+/**
+ * In-memory Bloom filter over registered patient emails and phones.
+ * A negative answer is definite, so most new sign-ups skip the duplicate
+ * pre-check query; a positive answer only means "check the database".
+ * The unique indexes remain the source of truth.
+ */
+@Component
+public class PatientContactFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientContactFilter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    // Until seeding finishes every lookup must fall through to the database
+    private volatile boolean ready;
+
+    public PatientContactFilter(JdbcTemplate jdbcTemplate,
+                                @Value("${patients.contact-filter.expected-entries:1000000}") long expectedEntries,
+                                @Value("${patients.contact-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        long bitsNeeded = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (bitsNeeded + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedEntries * Math.log(2)));
+    }
+
+    /**
+     * Load all existing emails and phones once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            long[] count = {0};
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT email, phone FROM patients");
+                statement.setFetchSize(1000);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                add(rs.getString(1), rs.getString(2));
+                count[0]++;
+            });
+            ready = true;
+            log.info("Patient contact filter seeded with {} patients", count[0]);
+        } catch (Exception e) {
+            log.error("Could not seed patient contact filter; duplicate checks will query the database", e);
+        }
+    }
+
+    /**
+     * Record a registered patient's contact details.
+     * 
+     * @param email the patient's email
+     * @param phone the patient's phone number
+     */
+    public void add(String email, String phone) {
+        if (email != null) {
+            set("e:" + ContactNormalizer.normalizeEmail(email));
+        }
+        if (phone != null) {
+            set("p:" + ContactNormalizer.normalizePhone(phone));
+        }
+    }
+
+    /**
+     * Check whether a patient with this email or phone might already exist.
+     * 
+     * @param email the email to check
+     * @param phone the phone number to check
+     * @return false if neither value has been registered, true if either might have been
+     */
+    public boolean mightContain(String email, String phone) {
+        if (!ready) {
+            return true;
+        }
+        return (email != null && test("e:" + ContactNormalizer.normalizeEmail(email)))
+                || (phone != null && test("p:" + ContactNormalizer.normalizePhone(phone)));
+    }
+
+    private void set(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean test(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer, spreads FNV output across all bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
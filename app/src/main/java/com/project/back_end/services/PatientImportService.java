@@ -0,0 +1,336 @@
+package com.project.back_end.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.PatientContact;
+import com.project.back_end.models.ContactNormalizer;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.SearchNormalizer;
+import com.project.back_end.repo.PatientRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk patient import from CSV.
+ * The upload is parsed as a stream and handled in chunks: each chunk is validated
+ * with the entity constraints, deduplicated against existing patients with one
+ * set-based query, and inserted with one JDBC batch (rewritten by the driver into
+ * multi-row INSERTs) in its own transaction.
+ */
+@Service
+public class PatientImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ROWS = 1000;
+    private static final List<String> COLUMNS = List.of("name", "email", "password", "phone", "address");
+    private static final String INSERT_SQL = "INSERT INTO patients " +
+            "(name, name_search, email, password, phone, address, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Keyed by email (unique) because JDBC batches do not return generated IDs
+    private static final String INSERT_TRIGRAM_SQL = "INSERT INTO patient_name_trigrams " +
+            "(patient_id, trigram) SELECT id, ? FROM patients WHERE email = ?";
+
+    private final PatientRepository patientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final PatientContactFilter patientContactFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PatientImportService(PatientRepository patientRepository,
+                                JdbcTemplate jdbcTemplate,
+                                Validator validator,
+                                PatientContactFilter patientContactFilter,
+                                PlatformTransactionManager transactionManager) {
+        this.patientRepository = patientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.patientContactFilter = patientContactFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import patients from a CSV stream with a header row naming the columns
+     * name, email, password, phone and address (any order).
+     *
+     * @param in the CSV upload
+     * @return report with counts and the per-row duplicates and validation errors
+     * @throws IOException if the upload cannot be read
+     * @throws IllegalArgumentException if the header is missing required columns
+     */
+    public Map<String, Object> importCsv(InputStream in) throws IOException {
+        ImportReport report = new ImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("Upload is empty");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : COLUMNS) {
+            if (!positions.containsKey(column)) {
+                throw new IllegalArgumentException("Missing column: " + column);
+            }
+        }
+
+        // Contacts seen earlier in this upload, so in-file duplicates are caught too
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        int rowNumber = 1;
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            rowNumber++;
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Row row = toRow(rowNumber, record, positions, report);
+            if (row == null) {
+                continue;
+            }
+            // Only accepted rows are remembered, so a rejected row cannot shadow a later one
+            if (seenEmails.contains(row.patient.getEmail()) || seenPhones.contains(row.patient.getPhone())) {
+                report.duplicate(row, "Duplicate of an earlier row in this upload");
+                continue;
+            }
+            seenEmails.add(row.patient.getEmail());
+            seenPhones.add(row.patient.getPhone());
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        return report.toMap();
+    }
+
+    private Row toRow(int rowNumber, List<String> record, Map<String, Integer> positions, ImportReport report) {
+        Patient patient = new Patient(
+                field(record, positions, "name"),
+                ContactNormalizer.normalizeEmail(field(record, positions, "email")),
+                field(record, positions, "password"),
+                ContactNormalizer.normalizePhone(field(record, positions, "phone")),
+                field(record, positions, "address"));
+        Row row = new Row(rowNumber, patient);
+
+        Set<ConstraintViolation<Patient>> violations = validator.validate(patient);
+        if (!violations.isEmpty()) {
+            List<String> messages = new ArrayList<>();
+            for (ConstraintViolation<Patient> violation : violations) {
+                messages.add(violation.getMessage());
+            }
+            report.invalid(row, String.join("; ", messages));
+            return null;
+        }
+        return row;
+    }
+
+    private void importChunk(List<Row> chunk, ImportReport report) {
+        List<String> emails = new ArrayList<>(chunk.size());
+        List<String> phones = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            emails.add(row.patient.getEmail());
+            phones.add(row.patient.getPhone());
+        }
+
+        // One set-based lookup for the whole chunk
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingPhones = new HashSet<>();
+        for (PatientContact contact : patientRepository.findContactsByEmailInOrPhoneIn(emails, phones)) {
+            existingEmails.add(contact.email());
+            existingPhones.add(contact.phone());
+        }
+
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existingEmails.contains(row.patient.getEmail())) {
+                report.duplicate(row, "Email already registered");
+            } else if (existingPhones.contains(row.patient.getPhone())) {
+                report.duplicate(row, "Phone already registered");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            // One transaction per chunk: a duplicate anywhere rolls back the rows the
+            // driver already sent, so the chunk is either fully inserted or not at all
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, fresh, fresh.size(),
+                        (ps, row) -> bind(ps, row.patient, now));
+                insertTrigrams(fresh);
+            });
+            for (Row row : fresh) {
+                imported(row, report);
+            }
+        } catch (DuplicateKeyException e) {
+            // A concurrent sign-up took one of the contacts; nothing from the chunk
+            // was kept, so retry row by row to keep the rest of it
+            for (Row row : fresh) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row.patient, now));
+                        insertTrigrams(List.of(row));
+                    });
+                    imported(row, report);
+                } catch (DuplicateKeyException duplicate) {
+                    report.duplicate(row, "Email or phone already registered");
+                }
+            }
+        }
+    }
+
+    private void insertTrigrams(List<Row> rows) {
+        List<Object[]> trigrams = new ArrayList<>();
+        for (Row row : rows) {
+            for (String trigram : SearchNormalizer.trigrams(SearchNormalizer.normalize(row.patient.getName()))) {
+                trigrams.add(new Object[] {trigram, row.patient.getEmail()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRIGRAM_SQL, trigrams);
+    }
+
+    private void imported(Row row, ImportReport report) {
+        patientContactFilter.add(row.patient.getEmail(), row.patient.getPhone());
+        report.imported++;
+    }
+
+    private static void bind(PreparedStatement ps, Patient patient, Timestamp now) throws SQLException {
+        ps.setString(1, patient.getName());
+        ps.setString(2, SearchNormalizer.normalize(patient.getName()));
+        ps.setString(3, patient.getEmail());
+        ps.setString(4, patient.getPassword());
+        ps.setString(5, patient.getPhone());
+        ps.setString(6, patient.getAddress());
+        ps.setTimestamp(7, now);
+        ps.setTimestamp(8, now);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> positions, String column) {
+        int position = positions.get(column);
+        if (position >= record.size()) {
+            return null;
+        }
+        String value = record.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Read one CSV record (RFC 4180: quoted fields may contain commas, doubled
+     * quotes and line breaks).
+     *
+     * @return the fields, or null at end of input
+     */
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(int rowNumber, Patient patient) {
+    }
+
+    private static final class ImportReport {
+        private int imported;
+        private int duplicates;
+        private int invalid;
+        private final List<Map<String, Object>> rows = new ArrayList<>();
+
+        void duplicate(Row row, String reason) {
+            duplicates++;
+            add(row, "duplicate", reason);
+        }
+
+        void invalid(Row row, String reason) {
+            invalid++;
+            add(row, "invalid", reason);
+        }
+
+        private void add(Row row, String status, String reason) {
+            if (rows.size() < MAX_REPORTED_ROWS) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("row", row.rowNumber());
+                entry.put("email", row.patient().getEmail());
+                entry.put("status", status);
+                entry.put("reason", reason);
+                rows.add(entry);
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("imported", imported);
+            map.put("duplicates", duplicates);
+            map.put("invalid", invalid);
+            map.put("rows", rows);
+            map.put("rowsTruncated", duplicates + invalid > rows.size());
+            return map;
+        }
+    }
+}
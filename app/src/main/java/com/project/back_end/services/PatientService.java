@@ -1,48 +1,70 @@
 package com.project.back_end.services;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ContactNormalizer;
 import com.project.back_end.models.Patient;
+import com.project.back_end.models.SearchNormalizer;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
 
 @Service
 public class PatientService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Bounds of the MySQL DATETIME range, used as open ends of the history timelines
+    private static final LocalDateTime EARLIEST_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final PatientContactFilter patientContactFilter;
 
     @Autowired
     public PatientService(PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          TokenService tokenService,
+                          PatientContactFilter patientContactFilter) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.patientContactFilter = patientContactFilter;
     }
 
     /**
      * Create a new patient.
+     * Not wrapped in an outer transaction, so a unique index violation surfaces
+     * from save() here instead of at commit.
      * 
      * @param patient the patient to create
-     * @return 1 for success, 0 for failure
+     * @return 1 for success, -1 if the email or phone is already registered, 0 for failure
      */
-    @Transactional
     public int createPatient(Patient patient) {
         try {
             patientRepository.save(patient);
+            patientContactFilter.add(patient.getEmail(), patient.getPhone());
             return 1;
+        } catch (DataIntegrityViolationException e) {
+            return -1;
         } catch (Exception e) {
             e.printStackTrace();
             return 0;
@@ -61,36 +83,33 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Extract email from token
-            String emailFromToken = tokenService.extractEmail(token);
-            if (emailFromToken == null) {
+            // Identity comes from the verified userId claim
+            Long patientIdFromToken = tokenService.extractPatientId(token);
+            if (patientIdFromToken == null) {
                 response.put("error", "Invalid token");
                 return ResponseEntity.status(401).body(response);
             }
             
-            // Get patient by email from token
-            Patient patientFromToken = patientRepository.findByEmail(emailFromToken);
-            if (patientFromToken == null) {
-                response.put("error", "Patient not found");
-                return ResponseEntity.status(404).body(response);
-            }
-            
             // Verify patient ID matches
-            if (!patientFromToken.getId().equals(id)) {
+            if (!patientIdFromToken.equals(id)) {
                 response.put("error", "Unauthorized access to patient appointments");
                 return ResponseEntity.status(403).body(response);
             }
             
-            // Get appointments for patient
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
+            // Get appointment DTOs for patient in a single statement
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findDTOsByPatientId(id);
             
-            // Convert to DTOs
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> convertToDTO(appointment))
-                    .collect(Collectors.toList());
+            // The rows already carry the patient's name; only look it up when there are none
+            String patientName = appointmentDTOs.isEmpty()
+                    ? patientRepository.findNameById(id)
+                    : appointmentDTOs.get(0).getPatientName();
+            if (patientName == null) {
+                response.put("error", "Patient not found");
+                return ResponseEntity.status(404).body(response);
+            }
             
             response.put("appointments", appointmentDTOs);
-            response.put("patientName", patientFromToken.getName());
+            response.put("patientName", patientName);
             response.put("totalAppointments", appointmentDTOs.size());
             
             return ResponseEntity.ok(response);
@@ -114,11 +133,6 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (!patientRepository.existsById(id)) {
-                response.put("error", "Patient not found");
-                return ResponseEntity.status(404).body(response);
-            }
-            
             int status;
             if ("past".equalsIgnoreCase(condition)) {
                 status = 1; // Completed/Closed appointments
@@ -129,12 +143,14 @@ public class PatientService {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            List<Appointment> appointments = appointmentRepository
-                    .findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, status);
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository
+                    .findDTOsByPatientIdAndStatus(id, status);
             
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> convertToDTO(appointment))
-                    .collect(Collectors.toList());
+            // Only pay for the existence check when there is nothing to show
+            if (appointmentDTOs.isEmpty() && !patientRepository.existsById(id)) {
+                response.put("error", "Patient not found");
+                return ResponseEntity.status(404).body(response);
+            }
             
             response.put("appointments", appointmentDTOs);
             response.put("condition", condition);
@@ -161,18 +177,14 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (!patientRepository.existsById(patientId)) {
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository
+                    .filterDTOsByDoctorNameAndPatientId(SearchNormalizer.normalize(name), patientId);
+            
+            if (appointmentDTOs.isEmpty() && !patientRepository.existsById(patientId)) {
                 response.put("error", "Patient not found");
                 return ResponseEntity.status(404).body(response);
             }
             
-            List<Appointment> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientId(name, patientId);
-            
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> convertToDTO(appointment))
-                    .collect(Collectors.toList());
-            
             response.put("appointments", appointmentDTOs);
             response.put("doctorName", name);
             response.put("patientId", patientId);
@@ -202,11 +214,6 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (!patientRepository.existsById(patientId)) {
-                response.put("error", "Patient not found");
-                return ResponseEntity.status(404).body(response);
-            }
-            
             int status;
             if ("past".equalsIgnoreCase(condition)) {
                 status = 1; // Completed/Closed appointments
@@ -217,12 +224,13 @@ public class PatientService {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            List<Appointment> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientIdAndStatus(name, patientId, status);
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository
+                    .filterDTOsByDoctorNameAndPatientIdAndStatus(SearchNormalizer.normalize(name), patientId, status);
             
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> convertToDTO(appointment))
-                    .collect(Collectors.toList());
+            if (appointmentDTOs.isEmpty() && !patientRepository.existsById(patientId)) {
+                response.put("error", "Patient not found");
+                return ResponseEntity.status(404).body(response);
+            }
             
             response.put("appointments", appointmentDTOs);
             response.put("condition", condition);
@@ -239,6 +247,115 @@ public class PatientService {
         }
     }
 
+    /**
+     * Get one page of a patient's appointment history using keyset pagination.
+     * Upcoming appointments are listed soonest first and past appointments most
+     * recent first; "next" continues in that order and "prev" walks back.
+     * 
+     * @param patientId patient ID
+     * @param timeline "upcoming" or "past"
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @param direction "next" or "prev"
+     * @param size requested page size
+     * @return response with the page and the cursors to move in either direction
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getAppointmentHistoryPage(Long patientId,
+                                                                         String timeline,
+                                                                         String cursor,
+                                                                         String direction,
+                                                                         Integer size) {
+        Map<String, Object> response = new HashMap<>();
+        
+        boolean upcoming;
+        if ("upcoming".equalsIgnoreCase(timeline) || "future".equalsIgnoreCase(timeline)) {
+            upcoming = true;
+        } else if ("past".equalsIgnoreCase(timeline)) {
+            upcoming = false;
+        } else {
+            response.put("error", "Invalid timeline. Use 'upcoming' or 'past'");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        boolean backward = "prev".equalsIgnoreCase(direction) && cursor != null;
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = upcoming ? now : EARLIEST_TIME;
+        LocalDateTime to = upcoming ? LATEST_TIME : now;
+        
+        // Upcoming reads ascending and past reads descending; "prev" flips the scan
+        boolean ascending = upcoming != backward;
+        
+        LocalDateTime cursorTime;
+        long cursorId;
+        if (cursor != null) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                cursorTime = LocalDateTime.parse(decoded.substring(0, separator));
+                cursorId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (RuntimeException e) {
+                response.put("error", "Invalid cursor");
+                return ResponseEntity.badRequest().body(response);
+            }
+        } else if (ascending) {
+            cursorTime = from;
+            cursorId = 0L;
+        } else {
+            cursorTime = to;
+            cursorId = Long.MAX_VALUE;
+        }
+        
+        try {
+            // Read one extra row to learn whether another page exists
+            Limit limit = Limit.of(pageSize + 1);
+            List<AppointmentDTO> rows = ascending
+                    ? appointmentRepository.findPatientPageAfter(patientId, from, to, cursorTime, cursorId, limit)
+                    : appointmentRepository.findPatientPageBefore(patientId, from, to, cursorTime, cursorId, limit);
+            
+            boolean hasMore = rows.size() > pageSize;
+            List<AppointmentDTO> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+            if (backward) {
+                Collections.reverse(page);
+            }
+            
+            boolean hasNext = backward || hasMore;
+            boolean hasPrevious = backward ? hasMore : cursor != null;
+            
+            response.put("appointments", page);
+            response.put("timeline", upcoming ? "upcoming" : "past");
+            response.put("hasNext", hasNext && !page.isEmpty());
+            response.put("hasPrevious", hasPrevious && !page.isEmpty());
+            if (!page.isEmpty()) {
+                if (hasNext) {
+                    response.put("nextCursor", encodeCursor(page.get(page.size() - 1)));
+                }
+                if (hasPrevious) {
+                    response.put("prevCursor", encodeCursor(page.get(0)));
+                }
+            }
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("error", "Internal server error: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Encode the (appointment_time, id) position of a row as an opaque cursor.
+     * 
+     * @param appointment the row to encode
+     * @return URL-safe cursor string
+     */
+    private String encodeCursor(AppointmentDTO appointment) {
+        String raw = appointment.getAppointmentTime() + "|" + appointment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Get patient details from token.
      * 
@@ -250,13 +367,13 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            String email = tokenService.extractEmail(token);
-            if (email == null) {
+            Long patientId = tokenService.extractPatientId(token);
+            if (patientId == null) {
                 response.put("error", "Invalid token");
                 return ResponseEntity.status(401).body(response);
             }
             
-            Patient patient = patientRepository.findByEmail(email);
+            Patient patient = patientRepository.findById(patientId).orElse(null);
             if (patient == null) {
                 response.put("error", "Patient not found");
                 return ResponseEntity.status(404).body(response);
@@ -282,31 +399,6 @@ public class PatientService {
         }
     }
 
-    /**
-     * Convert Appointment entity to AppointmentDTO.
-     * 
-     * @param appointment the appointment entity
-     * @return the appointment DTO
-     */
-    private AppointmentDTO convertToDTO(Appointment appointment) {
-        AppointmentDTO dto = new AppointmentDTO();
-        dto.setId(appointment.getId());
-        dto.setAppointmentTime(appointment.getAppointmentTime());
-        dto.setStatus(appointment.getStatus());
-        
-        if (appointment.getDoctor() != null) {
-            dto.setDoctorName(appointment.getDoctor().getName());
-            dto.setDoctorId(appointment.getDoctor().getId());
-        }
-        
-        if (appointment.getPatient() != null) {
-            dto.setPatientName(appointment.getPatient().getName());
-            dto.setPatientId(appointment.getPatient().getId());
-        }
-        
-        return dto;
-    }
-
     /**
      * Get patient by email.
      * 
@@ -315,7 +407,7 @@ public class PatientService {
      */
     @Transactional(readOnly = true)
     public Patient getPatientByEmail(String email) {
-        return patientRepository.findByEmail(email);
+        return patientRepository.findByEmail(ContactNormalizer.normalizeEmail(email));
     }
 
     /**
@@ -337,7 +429,7 @@ public class PatientService {
      */
     @Transactional(readOnly = true)
     public boolean patientExistsByEmail(String email) {
-        return patientRepository.findByEmail(email) != null;
+        return patientRepository.existsByEmail(ContactNormalizer.normalizeEmail(email));
     }
 
     /**
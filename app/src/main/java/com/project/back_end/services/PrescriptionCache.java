@@ -0,0 +1,195 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of prescriptions, keyed by appointment ID and by
+ * prescription ID. "No prescription yet" is cached too (as an empty Optional)
+ * with a shorter lifetime, since it is the answer most likely to change.
+ * PrescriptionService writes through on every save, update and delete; the
+ * TTLs only bound staleness from writes made by other instances.
+ * Each loader fills only its own map; the other one is filled once the load
+ * has returned, since loading inside another cache's compute can deadlock.
+ * Hit/miss/eviction counts are published as cache.* metrics.
+ */
+@Component
+public class PrescriptionCache {
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final Cache<Long, Optional<Prescription>> byAppointment;
+    private final Cache<String, Optional<Prescription>> byId;
+
+    public PrescriptionCache(PrescriptionRepository prescriptionRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${prescriptions.cache.max-size:10000}") long maxSize,
+                             @Value("${prescriptions.cache.ttl-ms:600000}") long ttlMs,
+                             @Value("${prescriptions.cache.negative-ttl-ms:30000}") long negativeTtlMs) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.byAppointment = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PresenceExpiry<Long>(Duration.ofMillis(ttlMs), Duration.ofMillis(negativeTtlMs)))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PresenceExpiry<String>(Duration.ofMillis(ttlMs), Duration.ofMillis(negativeTtlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byAppointment, "prescriptions.by-appointment");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "prescriptions.by-id");
+    }
+
+    /**
+     * Get the prescription for an appointment, loading it on a miss.
+     * 
+     * @param appointmentId the appointment ID
+     * @return the prescription, or empty if the appointment has none
+     */
+    public Optional<Prescription> getByAppointmentId(Long appointmentId) {
+        Optional<Prescription> prescription = byAppointment.get(appointmentId,
+                id -> prescriptionRepository.findByAppointmentId(id).stream().findFirst());
+        prescription.ifPresent(loaded -> byId.asMap().putIfAbsent(loaded.getId(), prescription));
+        return prescription;
+    }
+
+    /**
+     * Get the prescriptions for many appointments; all misses are loaded with one $in query.
+     * 
+     * @param appointmentIds the appointment IDs
+     * @return a map holding every requested ID, empty where the appointment has no prescription
+     */
+    public Map<Long, Optional<Prescription>> getByAppointmentIds(Set<Long> appointmentIds) {
+        Map<Long, Optional<Prescription>> prescriptions = byAppointment.getAll(appointmentIds, missing -> {
+            Map<Long, Optional<Prescription>> loaded = new HashMap<>();
+            for (Long id : missing) {
+                loaded.put(id, Optional.empty());
+            }
+            for (Prescription prescription : prescriptionRepository.findByAppointmentIdIn(new HashSet<>(missing))) {
+                loaded.put(prescription.getAppointmentId(), Optional.of(prescription));
+            }
+            return loaded;
+        });
+        for (Optional<Prescription> prescription : prescriptions.values()) {
+            prescription.ifPresent(loaded -> byId.asMap().putIfAbsent(loaded.getId(), prescription));
+        }
+        return prescriptions;
+    }
+
+    /**
+     * Get a prescription by its ID, loading it on a miss.
+     * 
+     * @param id the prescription ID
+     * @return the prescription, or empty if it does not exist
+     */
+    public Optional<Prescription> getById(String id) {
+        Optional<Prescription> prescription = byId.get(id, prescriptionRepository::findById);
+        prescription.ifPresent(loaded -> byAppointment.asMap().putIfAbsent(loaded.getAppointmentId(), prescription));
+        return prescription;
+    }
+
+    /**
+     * Look up an appointment's prescription without loading it, for callers
+     * that must not block on the database.
+     * 
+     * @param appointmentId the appointment ID
+     * @return the cached answer (empty Optional for "no prescription"), or null if not cached
+     */
+    public Optional<Prescription> getIfPresentByAppointmentId(Long appointmentId) {
+        return byAppointment.getIfPresent(appointmentId);
+    }
+
+    /**
+     * Cache an answer loaded outside the cache. A concurrent write-through is
+     * kept rather than overwritten, so a stale "no prescription" cannot replace it.
+     * 
+     * @param appointmentId the appointment ID
+     * @param prescription the loaded prescription, or empty if there is none
+     */
+    public void putLoaded(Long appointmentId, Optional<Prescription> prescription) {
+        if (byAppointment.asMap().putIfAbsent(appointmentId, prescription) == null) {
+            prescription.ifPresent(loaded -> byId.asMap().putIfAbsent(loaded.getId(), prescription));
+        }
+    }
+
+    /**
+     * Store a prescription that was just written.
+     * 
+     * @param prescription the saved prescription
+     */
+    public void put(Prescription prescription) {
+        Optional<Prescription> value = Optional.of(prescription);
+        byId.put(prescription.getId(), value);
+        byAppointment.put(prescription.getAppointmentId(), value);
+    }
+
+    /**
+     * Drop a prescription that was changed or deleted, under both keys.
+     * 
+     * @param prescription the prescription as it was before the write
+     */
+    public void evict(Prescription prescription) {
+        byId.invalidate(prescription.getId());
+        byAppointment.invalidate(prescription.getAppointmentId());
+    }
+
+    /**
+     * Drop prescriptions that were bulk deleted, under both keys.
+     * 
+     * @param prescriptions the deleted prescriptions (ID and appointment ID are enough)
+     */
+    public void evictAll(Collection<Prescription> prescriptions) {
+        Set<String> ids = new HashSet<>();
+        Set<Long> appointmentIds = new HashSet<>();
+        for (Prescription prescription : prescriptions) {
+            ids.add(prescription.getId());
+            appointmentIds.add(prescription.getAppointmentId());
+        }
+        byId.invalidateAll(ids);
+        byAppointment.invalidateAll(appointmentIds);
+    }
+
+    // Present values live for the full TTL, "no prescription" answers for the negative TTL
+    private static final class PresenceExpiry<K> implements Expiry<K, Optional<Prescription>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PresenceExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(K key, Optional<Prescription> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<Prescription> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<Prescription> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
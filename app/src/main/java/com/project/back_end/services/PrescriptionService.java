@@ -1,28 +1,59 @@
 package com.project.back_end.services;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.MedicationRecipient;
+import com.project.back_end.DTO.PrescriptionSummary;
 import com.project.back_end.models.Prescription;
+import com.project.back_end.models.SearchNormalizer;
 import com.project.back_end.repo.PrescriptionRepository;
 
 @Service
 public class PrescriptionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RECIPIENTS = 1000;
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final PrescriptionRepository prescriptionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final PrescriptionCache prescriptionCache;
 
     @Autowired
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+                               MongoTemplate mongoTemplate,
+                               PrescriptionCache prescriptionCache) {
         this.prescriptionRepository = prescriptionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.prescriptionCache = prescriptionCache;
     }
 
     /**
      * Save a prescription to the database.
+     * A single insert guarded by the unique appointment_id index; a duplicate
+     * key means a prescription already exists for the appointment.
      * 
      * @param prescription the prescription to save
      * @return response with success or error message
@@ -31,18 +62,8 @@ public class PrescriptionService {
         Map<String, String> response = new HashMap<>();
         
         try {
-            // Check if prescription already exists for this appointment
-            if (prescription.getAppointmentId() != null) {
-                List<Prescription> existingPrescriptions = prescriptionRepository
-                        .findByAppointmentId(prescription.getAppointmentId());
-                if (!existingPrescriptions.isEmpty()) {
-                    response.put("error", "Prescription already exists for this appointment");
-                    return ResponseEntity.badRequest().body(response);
-                }
-            }
-            
-            // Save the prescription
-            Prescription savedPrescription = prescriptionRepository.save(prescription);
+            Prescription savedPrescription = prescriptionRepository.insert(prescription);
+            prescriptionCache.put(savedPrescription);
             
             response.put("message", "Prescription saved successfully");
             response.put("prescriptionId", savedPrescription.getId());
@@ -50,6 +71,9 @@ public class PrescriptionService {
             
             return ResponseEntity.status(201).body(response);
             
+        } catch (DuplicateKeyException e) {
+            response.put("error", "Prescription already exists for this appointment");
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             e.printStackTrace();
             response.put("error", "Failed to save prescription: " + e.getMessage());
@@ -67,8 +91,10 @@ public class PrescriptionService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            List<Prescription> prescriptions = prescriptionRepository
-                    .findByAppointmentId(appointmentId);
+            // At most one per appointment (uk_appointment_id); served from the cache
+            List<Prescription> prescriptions = prescriptionCache.getByAppointmentId(appointmentId)
+                    .map(List::of)
+                    .orElse(List.of());
             
             if (prescriptions.isEmpty()) {
                 response.put("message", "No prescription found for this appointment");
@@ -89,6 +115,53 @@ public class PrescriptionService {
         }
     }
 
+    /**
+     * Retrieve the prescriptions for many appointments with one query.
+     * 
+     * @param appointmentIds the appointment IDs
+     * @return response with a map from appointment ID to its prescription
+     *         (null when the appointment has none)
+     */
+    public ResponseEntity<Map<String, Object>> getPrescriptions(List<Long> appointmentIds) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Set<Long> ids = new LinkedHashSet<>();
+        if (appointmentIds != null) {
+            for (Long id : appointmentIds) {
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            response.put("error", "At least one appointment ID is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            response.put("error", "At most " + MAX_BATCH_SIZE + " appointment IDs per request");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            // Cache hits are answered directly; the misses share one $in query
+            Map<Long, Optional<Prescription>> cached = prescriptionCache.getByAppointmentIds(ids);
+            Map<Long, Prescription> prescriptions = new LinkedHashMap<>();
+            for (Long id : ids) {
+                prescriptions.put(id, cached.get(id).orElse(null));
+            }
+            
+            response.put("prescriptions", prescriptions);
+            response.put("count", prescriptions.values().stream().filter(Objects::nonNull).count());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("error", "Failed to retrieve prescriptions: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
     /**
      * Get prescription by ID.
      * 
@@ -99,7 +172,7 @@ public class PrescriptionService {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            return prescriptionRepository.findById(id)
+            return prescriptionCache.getById(id)
                     .map(prescription -> {
                         response.put("prescription", prescription);
                         return ResponseEntity.ok(response);
@@ -117,21 +190,78 @@ public class PrescriptionService {
     }
 
     /**
-     * Get prescriptions by doctor ID.
+     * Get one page of a doctor's prescriptions, newest first, using keyset
+     * pagination on (prescribed_date, _id). Only the list-view fields are read.
      * 
      * @param doctorId the doctor ID
-     * @return response with prescriptions or error message
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @param size requested page size
+     * @param from optional first prescribed date to include
+     * @param to optional last prescribed date to include
+     * @return response with the page and the cursor for the next one
      */
-    public ResponseEntity<Map<String, Object>> getPrescriptionsByDoctorId(Long doctorId) {
+    public ResponseEntity<Map<String, Object>> getPrescriptionsByDoctorId(Long doctorId,
+                                                                          String cursor,
+                                                                          Integer size,
+                                                                          LocalDate from,
+                                                                          LocalDate to) {
         Map<String, Object> response = new HashMap<>();
         
+        if (from != null && to != null && from.isAfter(to)) {
+            response.put("error", "'from' must not be after 'to'");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("doctorId").is(doctorId));
+        if (from != null) {
+            criteria.add(Criteria.where("prescribedDate").gte(from.atStartOfDay()));
+        }
+        if (to != null) {
+            criteria.add(Criteria.where("prescribedDate").lt(to.plusDays(1).atStartOfDay()));
+        }
+        if (cursor != null) {
+            LocalDateTime cursorDate;
+            String cursorId;
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                cursorDate = LocalDateTime.parse(decoded.substring(0, separator));
+                cursorId = decoded.substring(separator + 1);
+            } catch (RuntimeException e) {
+                response.put("error", "Invalid cursor");
+                return ResponseEntity.badRequest().body(response);
+            }
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("prescribedDate").lt(cursorDate),
+                    Criteria.where("prescribedDate").is(cursorDate).and("id").lt(cursorId)));
+        }
+        
         try {
-            List<Prescription> prescriptions = prescriptionRepository
-                    .findByDoctorId(doctorId);
+            // Read one extra document to learn whether another page exists
+            Query query = new Query(new Criteria().andOperator(criteria))
+                    .with(Sort.by(Sort.Direction.DESC, "prescribedDate", "id"))
+                    .limit(pageSize + 1);
+            query.fields().include("appointmentId", "patientName", "medication",
+                    "dosage", "prescribedDate", "isActive");
             
-            response.put("prescriptions", prescriptions);
-            response.put("count", prescriptions.size());
+            List<Prescription> rows = mongoTemplate.find(query, Prescription.class);
+            boolean hasNext = rows.size() > pageSize;
+            List<PrescriptionSummary> page = new ArrayList<>(Math.min(rows.size(), pageSize));
+            for (Prescription row : hasNext ? rows.subList(0, pageSize) : rows) {
+                page.add(new PrescriptionSummary(row.getId(), row.getAppointmentId(), row.getPatientName(),
+                        row.getMedication(), row.getDosage(), row.getPrescribedDate(), row.getIsActive()));
+            }
+            
+            response.put("prescriptions", page);
+            response.put("count", page.size());
             response.put("doctorId", doctorId);
+            response.put("hasNext", hasNext);
+            if (hasNext) {
+                response.put("nextCursor", encodeCursor(page.get(page.size() - 1)));
+            }
             
             return ResponseEntity.ok(response);
             
@@ -142,6 +272,131 @@ public class PrescriptionService {
         }
     }
 
+    /**
+     * Encode the (prescribed_date, _id) position of a row as an opaque cursor.
+     * 
+     * @param prescription the row to encode
+     * @return URL-safe cursor string
+     */
+    private String encodeCursor(PrescriptionSummary prescription) {
+        String raw = prescription.prescribedDate() + "|" + prescription.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Search prescriptions by medication, newest first.
+     * The query is split into normalized words that must all appear in the
+     * medication; with prefix matching the last word may be incomplete
+     * ("amox" finds "Amoxicillin"). Served by idx_medication_tokens.
+     * 
+     * @param medication the medication name or words to look for
+     * @param prefix whether the last word is matched as a prefix
+     * @param size requested number of results
+     * @return response with the matching prescriptions
+     */
+    public ResponseEntity<Map<String, Object>> searchByMedication(String medication, boolean prefix, Integer size) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Criteria criteria = medicationCriteria(medication, prefix);
+        if (criteria == null) {
+            response.put("error", "Medication search needs at least one letter or digit");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            int limit = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.DESC, "prescribedDate"))
+                    .limit(limit);
+            query.fields().include("appointmentId", "patientName", "medication",
+                    "dosage", "prescribedDate", "isActive");
+            
+            List<PrescriptionSummary> prescriptions = new ArrayList<>();
+            for (Prescription row : mongoTemplate.find(query, Prescription.class)) {
+                prescriptions.add(new PrescriptionSummary(row.getId(), row.getAppointmentId(), row.getPatientName(),
+                        row.getMedication(), row.getDosage(), row.getPrescribedDate(), row.getIsActive()));
+            }
+            
+            response.put("prescriptions", prescriptions);
+            response.put("count", prescriptions.size());
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("error", "Failed to search prescriptions: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Find which appointments a medication was prescribed in, and to whom,
+     * most recent first. appointment_id is unique, so each prescription is
+     * one appointment; patient names are labels only and are not grouped on,
+     * since two patients can share a name. Reads at most MAX_RECIPIENTS
+     * entries in idx_medication_tokens order.
+     * 
+     * @param medication the medication name or words to look for
+     * @param prefix whether the last word is matched as a prefix
+     * @return response with one entry per appointment
+     */
+    public ResponseEntity<Map<String, Object>> getMedicationRecipients(String medication, boolean prefix) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Criteria criteria = medicationCriteria(medication, prefix);
+        if (criteria == null) {
+            response.put("error", "Medication search needs at least one letter or digit");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.DESC, "prescribedDate"))
+                    .limit(MAX_RECIPIENTS);
+            query.fields().include("appointmentId", "patientName", "prescribedDate");
+            
+            List<MedicationRecipient> recipients = new ArrayList<>();
+            for (Prescription row : mongoTemplate.find(query, Prescription.class)) {
+                recipients.add(new MedicationRecipient(row.getAppointmentId(), row.getPatientName(),
+                        row.getPrescribedDate()));
+            }
+            
+            response.put("recipients", recipients);
+            response.put("count", recipients.size());
+            response.put("truncated", recipients.size() == MAX_RECIPIENTS);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("error", "Failed to retrieve medication recipients: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Build the medication_tokens match for a search.
+     * Tokens only contain letters and digits, so the prefix pattern needs no
+     * escaping and stays an anchored, index-bounded regex.
+     * 
+     * @return the criteria, or null if the query has no searchable words
+     */
+    private Criteria medicationCriteria(String medication, boolean prefix) {
+        List<String> tokens = SearchNormalizer.tokens(medication);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        if (!prefix) {
+            return Criteria.where("medicationTokens").all(tokens);
+        }
+        Criteria startsWith = Criteria.where("medicationTokens").regex("^" + tokens.get(tokens.size() - 1));
+        List<String> complete = tokens.subList(0, tokens.size() - 1);
+        if (complete.isEmpty()) {
+            return startsWith;
+        }
+        return new Criteria().andOperator(Criteria.where("medicationTokens").all(complete), startsWith);
+    }
+
     /**
      * Update an existing prescription.
      * 
@@ -153,14 +408,18 @@ public class PrescriptionService {
         Map<String, String> response = new HashMap<>();
         
         try {
-            if (!prescriptionRepository.existsById(id)) {
+            Prescription existing = prescriptionCache.getById(id).orElse(null);
+            if (existing == null) {
                 response.put("error", "Prescription not found with ID: " + id);
                 return ResponseEntity.status(404).body(response);
             }
             
             // Ensure the ID is set
             prescription.setId(id);
-            prescriptionRepository.save(prescription);
+            Prescription savedPrescription = prescriptionRepository.save(prescription);
+            // The appointment may have changed, so drop the old keys before caching the new version
+            prescriptionCache.evict(existing);
+            prescriptionCache.put(savedPrescription);
             
             response.put("message", "Prescription updated successfully");
             response.put("prescriptionId", id);
@@ -184,12 +443,14 @@ public class PrescriptionService {
         Map<String, String> response = new HashMap<>();
         
         try {
-            if (!prescriptionRepository.existsById(id)) {
+            Prescription existing = prescriptionCache.getById(id).orElse(null);
+            if (existing == null) {
                 response.put("error", "Prescription not found with ID: " + id);
                 return ResponseEntity.status(404).body(response);
             }
             
             prescriptionRepository.deleteById(id);
+            prescriptionCache.evict(existing);
             
             response.put("message", "Prescription deleted successfully");
             response.put("prescriptionId", id);
@@ -0,0 +1,169 @@
+package com.project.back_end.services;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterparts of the prescription read and write paths in
+ * {@link PrescriptionService}, built on the reactive Mongo driver. No thread
+ * is held while MongoDB answers. Responses match the blocking versions, and
+ * the shared {@link PrescriptionCache} is consulted and written through the
+ * same way (only non-blocking cache operations are used).
+ */
+@Service
+public class ReactivePrescriptionService {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final ReactivePrescriptionRepository reactivePrescriptionRepository;
+    private final PrescriptionCache prescriptionCache;
+
+    @Autowired
+    public ReactivePrescriptionService(ReactivePrescriptionRepository reactivePrescriptionRepository,
+                                       PrescriptionCache prescriptionCache) {
+        this.reactivePrescriptionRepository = reactivePrescriptionRepository;
+        this.prescriptionCache = prescriptionCache;
+    }
+
+    /**
+     * Save a prescription with a single insert guarded by the unique appointment_id index.
+     * 
+     * @param prescription the prescription to save
+     * @return response with success or error message
+     */
+    public Mono<ResponseEntity<Map<String, String>>> savePrescription(Prescription prescription) {
+        return reactivePrescriptionRepository.insert(prescription)
+                .map(savedPrescription -> {
+                    prescriptionCache.put(savedPrescription);
+                    
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "Prescription saved successfully");
+                    response.put("prescriptionId", savedPrescription.getId());
+                    response.put("appointmentId", savedPrescription.getAppointmentId().toString());
+                    return ResponseEntity.status(201).body(response);
+                })
+                .onErrorResume(e -> {
+                    Map<String, String> response = new HashMap<>();
+                    if (e instanceof DuplicateKeyException) {
+                        response.put("error", "Prescription already exists for this appointment");
+                        return Mono.just(ResponseEntity.badRequest().body(response));
+                    }
+                    e.printStackTrace();
+                    response.put("error", "Failed to save prescription: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(500).body(response));
+                });
+    }
+
+    /**
+     * Retrieve prescription by appointment ID.
+     * 
+     * @param appointmentId the appointment ID
+     * @return response with prescription or error message
+     */
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(Long appointmentId) {
+        Optional<Prescription> cached = prescriptionCache.getIfPresentByAppointmentId(appointmentId);
+        Mono<Optional<Prescription>> lookup = cached != null
+                ? Mono.just(cached)
+                : reactivePrescriptionRepository.findByAppointmentId(appointmentId)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .doOnNext(loaded -> prescriptionCache.putLoaded(appointmentId, loaded));
+        
+        return lookup
+                .map(prescription -> {
+                    Map<String, Object> response = new HashMap<>();
+                    if (prescription.isEmpty()) {
+                        response.put("message", "No prescription found for this appointment");
+                        response.put("prescriptions", List.of());
+                        return ResponseEntity.ok(response);
+                    }
+                    response.put("prescriptions", List.of(prescription.get()));
+                    response.put("count", 1);
+                    response.put("appointmentId", appointmentId);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("error", "Failed to retrieve prescription: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(500).body(response));
+                });
+    }
+
+    /**
+     * Retrieve the prescriptions for many appointments; cache misses share one $in query.
+     * 
+     * @param appointmentIds the appointment IDs
+     * @return response with a map from appointment ID to its prescription
+     *         (null when the appointment has none)
+     */
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescriptions(List<Long> appointmentIds) {
+        Map<String, Object> response = new HashMap<>();
+        
+        Set<Long> ids = new LinkedHashSet<>();
+        if (appointmentIds != null) {
+            for (Long id : appointmentIds) {
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            response.put("error", "At least one appointment ID is required");
+            return Mono.just(ResponseEntity.badRequest().body(response));
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            response.put("error", "At most " + MAX_BATCH_SIZE + " appointment IDs per request");
+            return Mono.just(ResponseEntity.badRequest().body(response));
+        }
+        
+        Map<Long, Prescription> prescriptions = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Optional<Prescription> cached = prescriptionCache.getIfPresentByAppointmentId(id);
+            prescriptions.put(id, cached == null ? null : cached.orElse(null));
+            if (cached == null) {
+                missing.add(id);
+            }
+        }
+        
+        Mono<Map<Long, Prescription>> loaded = missing.isEmpty()
+                ? Mono.just(Map.of())
+                : reactivePrescriptionRepository.findByAppointmentIdIn(missing)
+                        .collectMap(Prescription::getAppointmentId);
+        
+        return loaded
+                .map(found -> {
+                    for (Long id : missing) {
+                        Prescription prescription = found.get(id);
+                        prescriptionCache.putLoaded(id, Optional.ofNullable(prescription));
+                        prescriptions.put(id, prescription);
+                    }
+                    response.put("prescriptions", prescriptions);
+                    response.put("count", prescriptions.values().stream().filter(Objects::nonNull).count());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("error", "Failed to retrieve prescriptions: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(500).body(error));
+                });
+    }
+}
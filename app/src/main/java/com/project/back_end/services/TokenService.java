@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -200,7 +201,8 @@ public class TokenService {
                 case "ADMIN":
                     return adminRepository.existsById(userId);
                 case "DOCTOR":
-                    return doctorRepository.existsById(userId);
+                    // Served from the second-level cache
+                    return doctorRepository.findById(userId).map(Doctor::isActive).orElse(false);
                 case "PATIENT":
                     return patientRepository.existsById(userId);
                 default:
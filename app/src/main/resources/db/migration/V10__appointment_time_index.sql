@@ -0,0 +1,2 @@
+-- streamExportRows: all-doctor export for a time range, which no (x, appointment_time) index can serve
+CREATE INDEX idx_appointments_time ON appointments (appointment_time);
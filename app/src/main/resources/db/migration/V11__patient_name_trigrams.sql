@@ -0,0 +1,10 @@
+-- Trigrams of patients.name_search, backing "contains" search on patient names
+-- (filled for existing rows by V12__Backfill_patient_name_trigrams)
+CREATE TABLE patient_name_trigrams (
+    patient_id BIGINT     NOT NULL,
+    trigram    VARCHAR(3) NOT NULL,
+    PRIMARY KEY (patient_id, trigram),
+    CONSTRAINT fk_patient_name_trigrams_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_patient_name_trigrams_trigram ON patient_name_trigrams (trigram, patient_id);
@@ -0,0 +1,5 @@
+-- findBySpecialty matches specialties case-insensitively through the column collation,
+-- so pin it explicitly: databases baselined from ddl-auto=update may have inherited a
+-- different server default. Rebuilds idx_doctors_specialty under the pinned collation.
+ALTER TABLE doctors
+    MODIFY specialty VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL;
@@ -0,0 +1,52 @@
+-- Baseline schema, matching what Hibernate previously generated with ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE admins (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admins_username UNIQUE (username)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE doctors (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    name      VARCHAR(100) NOT NULL,
+    specialty VARCHAR(50)  NOT NULL,
+    email     VARCHAR(100) NOT NULL,
+    password  VARCHAR(255) NOT NULL,
+    phone     VARCHAR(10)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_doctors_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE doctor_available_times (
+    doctor_id BIGINT      NOT NULL,
+    time_slot VARCHAR(20),
+    CONSTRAINT fk_doctor_available_times_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE patients (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(100) NOT NULL,
+    email      VARCHAR(100) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    phone      VARCHAR(10)  NOT NULL,
+    address    VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    last_login DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE appointments (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    doctor_id        BIGINT      NOT NULL,
+    patient_id       BIGINT      NOT NULL,
+    appointment_time DATETIME(6) NOT NULL,
+    status           INT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id),
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
@@ -0,0 +1,21 @@
+-- Composite indexes for every AppointmentRepository / DoctorRepository predicate.
+
+-- findByDoctorIdAndAppointmentTimeBetween, the doctor day views,
+-- findAppointmentTimesByDoctorIdAndAppointmentTimeBetween, streamExportRows
+CREATE INDEX idx_appointments_doctor_time ON appointments (doctor_id, appointment_time);
+
+-- findByPatient_IdAndStatusOrderByAppointmentTimeAsc, findDTOsByPatientIdAndStatus,
+-- filterByDoctorNameAndPatientIdAndStatus
+CREATE INDEX idx_appointments_patient_status_time ON appointments (patient_id, status, appointment_time);
+
+-- findByPatientId, findDTOsByPatientId, findPatientPageAfter/Before (keyset on time, id)
+CREATE INDEX idx_appointments_patient_time ON appointments (patient_id, appointment_time);
+
+-- findBySpecialtyIgnoreCase, findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase
+CREATE INDEX idx_doctors_specialty ON doctors (specialty);
+
+-- availableTimes collection loads and slot checks
+CREATE INDEX idx_doctor_available_times_doctor_slot ON doctor_available_times (doctor_id, time_slot);
+
+-- findByEmailOrPhone (index merge with uk_patients_email)
+CREATE INDEX idx_patients_phone ON patients (phone);
@@ -0,0 +1,18 @@
+-- Normalized (lowercased, accent-folded) name columns maintained by entity callbacks,
+-- so name lookups compare raw column values instead of wrapping them in LOWER().
+
+ALTER TABLE doctors ADD COLUMN name_search VARCHAR(100);
+CREATE INDEX idx_doctors_name_search ON doctors (name_search);
+
+ALTER TABLE patients ADD COLUMN name_search VARCHAR(100);
+CREATE INDEX idx_patients_name_search ON patients (name_search);
+
+-- Trigrams of doctors.name_search, backing "contains" search
+CREATE TABLE doctor_name_trigrams (
+    doctor_id BIGINT     NOT NULL,
+    trigram   VARCHAR(3) NOT NULL,
+    PRIMARY KEY (doctor_id, trigram),
+    CONSTRAINT fk_doctor_name_trigrams_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE INDEX idx_doctor_name_trigrams_trigram ON doctor_name_trigrams (trigram, doctor_id);
@@ -0,0 +1,2 @@
+-- findStaleScheduledIds: range scan of scheduled appointments by time
+CREATE INDEX idx_appointments_status_time ON appointments (status, appointment_time);
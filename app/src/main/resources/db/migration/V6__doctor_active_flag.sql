@@ -0,0 +1,2 @@
+-- Doctors pending asynchronous deletion are hidden from listings and logins
+ALTER TABLE doctors ADD COLUMN active BIT(1) NOT NULL DEFAULT b'1';
@@ -0,0 +1,2 @@
+-- Optimistic locking for appointment updates
+ALTER TABLE appointments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Registration relies on unique indexes over normalized contact details
+-- (see ContactNormalizer). Existing rows are normalized first; if two patients
+-- share a phone number this migration fails and the duplicates must be merged.
+
+UPDATE patients SET email = LOWER(TRIM(email)) WHERE email <> LOWER(TRIM(email));
+UPDATE patients SET phone = REGEXP_REPLACE(phone, '[^0-9]', '') WHERE phone REGEXP '[^0-9]';
+
+DROP INDEX idx_patients_phone ON patients;
+ALTER TABLE patients ADD CONSTRAINT uk_patients_phone UNIQUE (phone);
@@ -0,0 +1,2 @@
+-- countByDoctorAndStatus: GROUP BY doctor_id, status read from the index alone
+CREATE INDEX idx_appointments_doctor_status ON appointments (doctor_id, status);
@@ -14,6 +14,7 @@ async function initializePage() {
   const doctorName = urlParams.get("doctorName");
   const appointmentDate = urlParams.get("appointmentDate");
   const appointmentTime = urlParams.get("appointmentTime");
+  const version = urlParams.get("version");
 
   console.log(doctorId)
   if (!token || !patientId) {
@@ -63,7 +64,8 @@ async function initializePage() {
           doctor: { id: doctor.id },
           patient: { id: patientId },
           appointmentTime: `${date}T${startTime}:00`,
-          status: 0
+          status: 0,
+          version: version
         };
 
         const updateResponse = await updateAppointment(updatedAppointment, token);
@@ -0,0 +1,209 @@
+package com.project.back_end.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.project.back_end.TestcontainersConfiguration;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.TokenService;
+
+/**
+ * Drives the blocking and the reactive batch prescription endpoints with the
+ * same concurrent load and reports latency and thread usage for each.
+ * <p>
+ * Tomcat is limited to a few request threads and the prescription cache is
+ * disabled, so every request reaches MongoDB and the blocking path queues once
+ * all request threads wait on the driver, while the reactive path releases them.
+ * Every response is checked; the latency and thread figures are logged rather
+ * than asserted, since they depend on the machine running the build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "appointments.sweeper.enabled=false",
+        "prescriptions.cache.max-size=0",
+        "server.tomcat.threads.max=" + PrescriptionLoadTest.REQUEST_THREADS })
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrescriptionLoadTest {
+
+    static final int REQUEST_THREADS = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionLoadTest.class);
+    private static final int PRESCRIPTIONS = 1_000;
+    private static final int BATCH_SIZE = 20;
+    private static final int CONCURRENCY = 200;
+    private static final int REQUESTS = 2_000;
+    private static final int WARM_UP_REQUESTS = 200;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private HttpClient client;
+    private ExecutorService clients;
+    private String token;
+
+    @BeforeAll
+    void seed() {
+        long doctorId = new SimpleJdbcInsert(jdbcTemplate).withTableName("doctors")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "name", "Load Doctor",
+                        "name_search", "load doctor",
+                        "specialty", "Cardiology",
+                        "email", "load.doctor@example.com",
+                        "password", "secret123",
+                        "phone", "1999999999"))
+                .longValue();
+        token = tokenService.generateToken(doctorId, "DOCTOR");
+
+        List<Prescription> prescriptions = new ArrayList<>();
+        for (long appointmentId = 1; appointmentId <= PRESCRIPTIONS; appointmentId++) {
+            Prescription prescription = new Prescription("Patient " + appointmentId, appointmentId,
+                    "Amoxicillin 500mg", "1 tablet");
+            prescription.setDoctorId(doctorId);
+            prescriptions.add(prescription);
+        }
+        mongoTemplate.insertAll(prescriptions);
+
+        // Clients run on virtual threads, so they do not show up in the platform thread counts
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clients)
+                .build();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        clients.shutdownNow();
+        mongoTemplate.dropCollection(Prescription.class);
+        jdbcTemplate.update("DELETE FROM doctors");
+    }
+
+    @Test
+    void reactiveAndBlockingBatchReadsServeTheSameLoad() throws Exception {
+        String blocking = "/api/prescription/batch/";
+        String reactive = "/api/prescription/reactive/batch/";
+        run(blocking, WARM_UP_REQUESTS);
+        run(reactive, WARM_UP_REQUESTS);
+
+        LoadResult blockingResult = run(blocking, REQUESTS);
+        LoadResult reactiveResult = run(reactive, REQUESTS);
+
+        log.info("Blocking: {}", blockingResult);
+        log.info("Reactive: {}", reactiveResult);
+        assertThat(blockingResult.failures()).isZero();
+        assertThat(reactiveResult.failures()).isZero();
+    }
+
+    /**
+     * Send requests from CONCURRENCY clients at once, each asking for a
+     * different window of BATCH_SIZE appointments.
+     */
+    private LoadResult run(String path, int requests) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + path + token);
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        List<Future<Long>> latencies = new ArrayList<>(requests);
+
+        threads.resetPeakThreadCount();
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long first = (long) i * BATCH_SIZE % PRESCRIPTIONS + 1;
+            String body = LongStream.range(first, first + BATCH_SIZE)
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(",", "[", "]"));
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            inFlight.acquire();
+            latencies.add(clients.submit(() -> {
+                try {
+                    long sent = System.nanoTime();
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    boolean ok = response.statusCode() == 200
+                            && response.body().contains("\"count\":" + BATCH_SIZE);
+                    return ok ? System.nanoTime() - sent : -1L;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        long[] nanos = new long[requests];
+        int failures = 0;
+        for (int i = 0; i < requests; i++) {
+            nanos[i] = latencies.get(i).get(30, TimeUnit.SECONDS);
+            if (nanos[i] < 0) {
+                failures++;
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        int peakThreads = threads.getPeakThreadCount();
+
+        long[] succeeded = Arrays.stream(nanos).filter(value -> value >= 0).sorted().toArray();
+        return new LoadResult(requests, failures, peakThreads,
+                percentileMillis(succeeded, 50), percentileMillis(succeeded, 99),
+                requests * 1_000_000_000.0 / elapsed);
+    }
+
+    private static double percentileMillis(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record LoadResult(int requests, int failures, int peakThreads,
+                              double p50Millis, double p99Millis, double requestsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d failed, peak %d JVM threads, p50 %.1f ms, p99 %.1f ms, %.0f req/s",
+                    requests, failures, peakThreads, p50Millis, p99Millis, requestsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.project.back_end.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.client.MongoCollection;
+import com.project.back_end.TestcontainersConfiguration;
+import com.project.back_end.models.SearchNormalizer;
+
+/**
+ * Runs explain for each PrescriptionRepository and PrescriptionService query
+ * against MongoDB, with the indexes PrescriptionIndexInitializer created at
+ * startup, and fails if the winning plan scans the collection.
+ * <p>
+ * Filters, sorts and limits mirror what Spring Data sends for each method, using
+ * the stored field names. Delete methods are explained as the find with the same
+ * filter, which goes through the same plan selection.
+ * <p>
+ * Not covered: MedicationTokenBackfill, which looks for documents missing
+ * medication_tokens and reads the whole collection by design, and the inherited
+ * findById/findAll/save methods.
+ */
+@SpringBootTest(properties = "appointments.sweeper.enabled=false")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrescriptionQueryPlanTest {
+
+    private static final int PRESCRIPTIONS = 5_000;
+    private static final int DOCTORS = 50;
+    private static final List<String> MEDICATIONS = List.of("Amoxicillin 500mg", "Ibuprofen 400mg",
+            "Paracetamol 1g", "Metformin 850mg", "Atorvastatin 20mg", "Omeprazole 20mg");
+    private static final Set<String> INDEX_STAGES = Set.of("IXSCAN", "IDHACK", "EXPRESS_IXSCAN");
+    private static final LocalDateTime FIRST_PRESCRIPTION = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private MongoCollection<Document> collection;
+    private final List<ObjectId> ids = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        collection = mongoTemplate.getCollection("prescriptions");
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < PRESCRIPTIONS; i++) {
+            String medication = MEDICATIONS.get(i % MEDICATIONS.size());
+            ObjectId id = new ObjectId();
+            ids.add(id);
+            documents.add(new Document("_id", id)
+                    .append("patient_name", "Patient " + (i % 500))
+                    .append("appointment_id", (long) i + 1)
+                    .append("medication", medication)
+                    .append("medication_tokens", SearchNormalizer.tokens(medication))
+                    .append("dosage", "1 tablet")
+                    .append("prescribed_date", date(FIRST_PRESCRIPTION.plusHours(i)))
+                    .append("is_active", i % 10 != 0)
+                    .append("doctor_id", (long) i % DOCTORS + 1));
+        }
+        collection.insertMany(documents);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        collection.deleteMany(new Document());
+    }
+
+    // Stored the way Spring Data converts LocalDateTime
+    private static Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    Stream<Arguments> queries() {
+        Date cursorDate = date(FIRST_PRESCRIPTION.plusHours(PRESCRIPTIONS / 2));
+        return Stream.of(
+                Arguments.of("findByAppointmentId",
+                        new Document("appointment_id", 42L), null, 0),
+                Arguments.of("findByAppointmentIdIn / deleteByAppointmentIdIn",
+                        new Document("appointment_id", new Document("$in", List.of(1L, 2L, 3L))), null, 0),
+                Arguments.of("findKeysByDoctorId",
+                        new Document("doctor_id", 7L), null, 500),
+                Arguments.of("deleteByIdIn",
+                        new Document("_id", new Document("$in", ids.subList(0, 3))), null, 0),
+                Arguments.of("getPrescriptionsByDoctorId first page",
+                        new Document("$and", List.of(new Document("doctor_id", 7L))),
+                        new Document("prescribed_date", -1).append("_id", -1), 21),
+                Arguments.of("getPrescriptionsByDoctorId next page",
+                        new Document("$and", List.of(new Document("doctor_id", 7L),
+                                new Document("$or", List.of(
+                                        new Document("prescribed_date", new Document("$lt", cursorDate)),
+                                        new Document("prescribed_date", cursorDate)
+                                                .append("_id", new Document("$lt", ids.get(PRESCRIPTIONS / 2))))))),
+                        new Document("prescribed_date", -1).append("_id", -1), 21),
+                Arguments.of("searchByMedication exact",
+                        new Document("medication_tokens", new Document("$all", List.of("amoxicillin"))),
+                        new Document("prescribed_date", -1), 20),
+                Arguments.of("searchByMedication prefix",
+                        new Document("$and", List.of(
+                                new Document("medication_tokens", new Document("$all", List.of("500mg"))),
+                                new Document("medication_tokens", new Document("$regex", "^amox")))),
+                        new Document("prescribed_date", -1), 20),
+                Arguments.of("getMedicationRecipients exact",
+                        new Document("medication_tokens", new Document("$all", List.of("ibuprofen"))),
+                        new Document("prescribed_date", -1), 1000),
+                Arguments.of("getMedicationRecipients prefix",
+                        new Document("medication_tokens", new Document("$regex", "^ibu")),
+                        new Document("prescribed_date", -1), 1000));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void queryUsesAnIndex(String method, Document filter, Document sort, int limit) {
+        Document command = new Document("find", "prescriptions").append("filter", filter);
+        if (sort != null) {
+            command.append("sort", sort);
+        }
+        if (limit > 0) {
+            command.append("limit", limit);
+        }
+
+        Document explain = mongoTemplate.getDb().runCommand(
+                new Document("explain", command).append("verbosity", "queryPlanner"));
+
+        assertPlanUsesAnIndex(method, explain);
+    }
+
+    private static void assertPlanUsesAnIndex(String method, Document explain) {
+        List<String> stages = new ArrayList<>();
+        collectWinningPlanStages(explain, false, stages);
+
+        assertThat(stages).as("%s winning plan stages", method)
+                .isNotEmpty()
+                .doesNotContain("COLLSCAN")
+                .anyMatch(INDEX_STAGES::contains);
+    }
+
+    // Explain nests plans differently for the classic and SBE engines; walk
+    // everything and keep the stages under winningPlan
+    private static void collectWinningPlanStages(Object node, boolean inWinningPlan, List<String> stages) {
+        if (node instanceof Document document) {
+            for (var entry : document.entrySet()) {
+                if (entry.getKey().equals("rejectedPlans")) {
+                    continue;
+                }
+                if (inWinningPlan && entry.getKey().equals("stage") && entry.getValue() instanceof String stage) {
+                    stages.add(stage);
+                }
+                collectWinningPlanStages(entry.getValue(),
+                        inWinningPlan || entry.getKey().equals("winningPlan"), stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collectWinningPlanStages(element, inWinningPlan, stages);
+            }
+        }
+    }
+}
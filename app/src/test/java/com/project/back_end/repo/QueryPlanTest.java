@@ -0,0 +1,316 @@
+package com.project.back_end.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.project.back_end.TestcontainersConfiguration;
+import com.project.back_end.models.SearchNormalizer;
+
+/**
+ * Runs EXPLAIN for the SQL behind each AppointmentRepository and DoctorRepository
+ * query against the Flyway-built MySQL schema, and fails if any base table is
+ * read with a full scan (type ALL).
+ * <p>
+ * The statements mirror what Hibernate renders for each repository method, with
+ * literal values picked to be as selective as they are in production (one doctor,
+ * one patient, one day). Tables are seeded and analyzed first so the optimizer
+ * works from realistic statistics rather than near-empty tables.
+ * <p>
+ * Not covered: findByActiveTrue and findIdsByActiveFalse, which read the whole
+ * doctor list by design, and the inherited findById/findAll/save methods.
+ */
+@SpringBootTest(properties = "appointments.sweeper.enabled=false")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int DOCTORS = 200;
+    private static final int SPECIALTIES = 20;
+    private static final int PATIENTS = 500;
+    private static final int APPOINTMENTS = 20_000;
+    private static final LocalDateTime FIRST_APPOINTMENT = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long doctorId;
+    private long patientId;
+    private long appointmentId;
+
+    @BeforeAll
+    void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> doctors = new ArrayList<>();
+        List<String> doctorNames = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            String name = String.format("Doctor %04d", i);
+            doctorNames.add(SearchNormalizer.normalize(name));
+            doctors.add(new Object[] {name, doctorNames.get(i), "Specialty " + (i % SPECIALTIES),
+                    "doctor" + i + "@example.com", "secret123", String.format("1%09d", i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO doctors (name, name_search, specialty, email, password, phone) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", doctors);
+        List<Long> doctorIds = jdbcTemplate.queryForList("SELECT id FROM doctors ORDER BY id", Long.class);
+
+        List<Object[]> slots = new ArrayList<>();
+        List<Object[]> trigrams = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            long id = doctorIds.get(i);
+            slots.add(new Object[] {id, "AM"});
+            slots.add(new Object[] {id, "PM"});
+            for (String trigram : SearchNormalizer.trigrams(doctorNames.get(i))) {
+                trigrams.add(new Object[] {id, trigram});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO doctor_available_times (doctor_id, time_slot) VALUES (?, ?)", slots);
+        jdbcTemplate.batchUpdate("INSERT INTO doctor_name_trigrams (doctor_id, trigram) VALUES (?, ?)", trigrams);
+
+        List<Object[]> patients = new ArrayList<>();
+        List<String> patientNames = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            String name = String.format("Patient %04d", i);
+            patientNames.add(SearchNormalizer.normalize(name));
+            patients.add(new Object[] {name, patientNames.get(i), "patient" + i + "@example.com",
+                    "secret123", String.format("2%09d", i), "1 Main Street", now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO patients (name, name_search, email, password, phone, address, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", patients);
+        List<Long> patientIds = jdbcTemplate.queryForList("SELECT id FROM patients ORDER BY id", Long.class);
+
+        List<Object[]> patientTrigrams = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            for (String trigram : SearchNormalizer.trigrams(patientNames.get(i))) {
+                patientTrigrams.add(new Object[] {patientIds.get(i), trigram});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO patient_name_trigrams (patient_id, trigram) VALUES (?, ?)",
+                patientTrigrams);
+
+        List<Object[]> appointments = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            appointments.add(new Object[] {doctorIds.get(i % DOCTORS), patientIds.get((i * 7) % PATIENTS),
+                    Timestamp.valueOf(FIRST_APPOINTMENT.plusMinutes(30L * i)), i % 3});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status) "
+                + "VALUES (?, ?, ?, ?)", appointments);
+
+        jdbcTemplate.execute("ANALYZE TABLE appointments, doctors, doctor_available_times, "
+                + "doctor_name_trigrams, patients, patient_name_trigrams");
+
+        doctorId = doctorIds.get(0);
+        patientId = patientIds.get(0);
+        appointmentId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM appointments WHERE patient_id = ?", Long.class, patientId);
+    }
+
+    @AfterAll
+    void deleteSeededRows() {
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM doctor_available_times");
+        jdbcTemplate.update("DELETE FROM doctor_name_trigrams");
+        jdbcTemplate.update("DELETE FROM doctors");
+        jdbcTemplate.update("DELETE FROM patient_name_trigrams");
+        jdbcTemplate.update("DELETE FROM patients");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryAvoidsFullScans(String query, String sql) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+
+        assertThat(plan)
+                .as("EXPLAIN %s", sql)
+                .isNotEmpty()
+                .noneMatch(row -> isBaseTable(row) && "ALL".equals(row.get("type")));
+    }
+
+    Stream<Arguments> repositoryQueries() {
+        String dayStart = "'2030-01-03 00:00:00'";
+        String dayEnd = "'2030-01-03 23:59:59'";
+        String appointmentColumns = "a.id, a.doctor_id, a.patient_id, a.appointment_time, a.status, a.version";
+        String dtoColumns = "a.id, d.id, d.name, p.id, p.name, a.appointment_time, a.status, a.version";
+        String ids = appointmentId + ", " + (appointmentId + 1) + ", " + (appointmentId + 2);
+
+        return Stream.of(
+                // AppointmentRepository
+                query("findByDoctorIdAndAppointmentTimeBetween",
+                        "SELECT " + appointmentColumns + ", d.name, t.time_slot FROM appointments a "
+                        + "LEFT JOIN doctors d ON d.id = a.doctor_id "
+                        + "LEFT JOIN doctor_available_times t ON t.doctor_id = d.id "
+                        + "WHERE d.id = " + doctorId + " AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd),
+                query("deleteAllByDoctorId",
+                        "DELETE FROM appointments WHERE doctor_id = " + doctorId),
+                query("findByPatientId",
+                        "SELECT " + appointmentColumns + " FROM appointments a WHERE a.patient_id = " + patientId),
+                query("findByPatient_IdAndStatusOrderByAppointmentTimeAsc",
+                        "SELECT " + appointmentColumns + " FROM appointments a "
+                        + "WHERE a.patient_id = " + patientId + " AND a.status = 0 ORDER BY a.appointment_time"),
+                query("filterByDoctorNameAndPatientId",
+                        "SELECT " + appointmentColumns + " FROM appointments a JOIN doctors d ON d.id = a.doctor_id "
+                        + "WHERE d.name_search LIKE '%tor 00%' AND a.patient_id = " + patientId),
+                query("filterByDoctorNameAndPatientIdAndStatus",
+                        "SELECT " + appointmentColumns + " FROM appointments a JOIN doctors d ON d.id = a.doctor_id "
+                        + "WHERE d.name_search LIKE '%tor 00%' AND a.patient_id = " + patientId + " AND a.status = 0"),
+                query("updateStatus",
+                        "UPDATE appointments SET status = 1, version = version + 1 WHERE id = " + appointmentId),
+                query("streamExportRows",
+                        "SELECT a.id, d.name, p.name, a.appointment_time, a.status FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd + " "
+                        + "ORDER BY a.appointment_time, a.id"),
+                query("streamExportRowsForDoctor",
+                        "SELECT a.id, d.name, p.name, a.appointment_time, a.status FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE a.doctor_id = " + doctorId + " "
+                        + "AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd + " "
+                        + "ORDER BY a.appointment_time, a.id"),
+                query("findDTOsByPatientId",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE p.id = " + patientId + " ORDER BY a.appointment_time"),
+                query("findDTOsByPatientIdAndStatus",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE p.id = " + patientId + " AND a.status = 0 ORDER BY a.appointment_time"),
+                query("filterDTOsByDoctorNameAndPatientId",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE d.name_search LIKE '%tor 00%' AND p.id = " + patientId + " "
+                        + "ORDER BY a.appointment_time"),
+                query("filterDTOsByDoctorNameAndPatientIdAndStatus",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE d.name_search LIKE '%tor 00%' AND p.id = " + patientId + " AND a.status = 0 "
+                        + "ORDER BY a.appointment_time"),
+                query("findDoctorViewsByDoctorIdAndAppointmentTimeBetween",
+                        "SELECT a.id, a.appointment_time, a.status, p.id, p.name, p.phone, p.email "
+                        + "FROM appointments a JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE a.doctor_id = " + doctorId + " "
+                        + "AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd + " "
+                        + "ORDER BY a.appointment_time"),
+                query("findDoctorViewsByDoctorIdAndPatientNameAndAppointmentTimeBetween",
+                        "SELECT a.id, a.appointment_time, a.status, p.id, p.name, p.phone, p.email "
+                        + "FROM appointments a JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE a.doctor_id = " + doctorId + " "
+                        + "AND p.id IN (SELECT t.id FROM patients t "
+                        + "JOIN patient_name_trigrams g ON g.patient_id = t.id "
+                        + "WHERE g.trigram IN ('ent', 'nt ', 't 0', ' 00') "
+                        + "GROUP BY t.id HAVING COUNT(DISTINCT g.trigram) = 4) "
+                        + "AND p.name_search LIKE '%ent 00%' "
+                        + "AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd + " "
+                        + "ORDER BY a.appointment_time"),
+                query("findDoctorViewsByDoctorIdAndPatientNamePrefixAndAppointmentTimeBetween",
+                        "SELECT a.id, a.appointment_time, a.status, p.id, p.name, p.phone, p.email "
+                        + "FROM appointments a JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE a.doctor_id = " + doctorId + " AND p.name_search LIKE 'pa%' "
+                        + "AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd + " "
+                        + "ORDER BY a.appointment_time"),
+                query("findAppointmentTimesByDoctorIdAndAppointmentTimeBetween",
+                        "SELECT a.appointment_time FROM appointments a WHERE a.doctor_id = " + doctorId + " "
+                        + "AND a.appointment_time BETWEEN " + dayStart + " AND " + dayEnd),
+                query("findPatientPageAfter",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE p.id = " + patientId + " "
+                        + "AND a.appointment_time >= '2030-01-01 00:00:00' AND a.appointment_time < '2031-01-01 00:00:00' "
+                        + "AND (a.appointment_time > " + dayStart + " "
+                        + "OR (a.appointment_time = " + dayStart + " AND a.id > " + appointmentId + ")) "
+                        + "ORDER BY a.appointment_time ASC, a.id ASC LIMIT 20"),
+                query("findPatientPageBefore",
+                        "SELECT " + dtoColumns + " FROM appointments a "
+                        + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id "
+                        + "WHERE p.id = " + patientId + " "
+                        + "AND a.appointment_time >= '2030-01-01 00:00:00' AND a.appointment_time < '2031-01-01 00:00:00' "
+                        + "AND (a.appointment_time < " + dayEnd + " "
+                        + "OR (a.appointment_time = " + dayEnd + " AND a.id < " + appointmentId + ")) "
+                        + "ORDER BY a.appointment_time DESC, a.id DESC LIMIT 20"),
+                query("findStaleScheduledIds",
+                        "SELECT a.id FROM appointments a WHERE a.status = 0 AND a.appointment_time < " + dayEnd + " "
+                        + "ORDER BY a.appointment_time LIMIT 200"),
+                query("completeScheduledByIds",
+                        "UPDATE appointments SET status = 1, version = version + 1 WHERE id IN (" + ids + ") AND status = 0"),
+                query("findIdsByIdInAndDoctorId",
+                        "SELECT a.id FROM appointments a WHERE a.id IN (" + ids + ") AND a.doctor_id = " + doctorId),
+                query("updateStatusForDoctor",
+                        "UPDATE appointments SET status = 2, version = version + 1 "
+                        + "WHERE id IN (" + ids + ") AND doctor_id = " + doctorId),
+                query("countByDoctor_Id",
+                        "SELECT COUNT(a.id) FROM appointments a WHERE a.doctor_id = " + doctorId),
+                query("findIdsByDoctorId",
+                        "SELECT a.id FROM appointments a WHERE a.doctor_id = " + doctorId + " ORDER BY a.id LIMIT 500"),
+                query("deleteByIdIn",
+                        "DELETE FROM appointments WHERE id IN (" + ids + ")"),
+                query("rescheduleIfAvailable",
+                        "UPDATE appointments a "
+                        + "SET a.doctor_id = " + doctorId + ", a.appointment_time = '2030-01-03 09:00:00', "
+                        + "a.status = 0, a.version = a.version + 1 "
+                        + "WHERE a.id = " + appointmentId + " AND a.patient_id = " + patientId + " AND a.version = 0 "
+                        + "AND EXISTS (SELECT 1 FROM doctors d "
+                        + "JOIN doctor_available_times t ON t.doctor_id = d.id "
+                        + "WHERE d.id = " + doctorId + " AND d.active = TRUE AND t.time_slot = 'AM') "
+                        + "AND NOT EXISTS (SELECT 1 FROM (SELECT b.id FROM appointments b "
+                        + "WHERE b.doctor_id = " + doctorId + " "
+                        + "AND b.appointment_time >= '2030-01-03 00:00:00' AND b.appointment_time < '2030-01-03 12:00:00' "
+                        + "AND b.id <> " + appointmentId + " LIMIT 1) conflict)"),
+                query("findVersionByIdAndPatientId",
+                        "SELECT a.version FROM appointments a WHERE a.id = " + appointmentId
+                        + " AND a.patient_id = " + patientId),
+                query("countByDoctorAndStatus",
+                        "SELECT a.doctor_id, a.status, COUNT(a.id) FROM appointments a GROUP BY a.doctor_id, a.status"),
+                query("countByStatusForPatient",
+                        "SELECT a.patient_id, a.status, COUNT(a.id) FROM appointments a "
+                        + "WHERE a.patient_id = " + patientId + " GROUP BY a.patient_id, a.status"),
+
+                // DoctorRepository
+                query("findByEmail",
+                        "SELECT d.* FROM doctors d WHERE d.email = 'doctor7@example.com'"),
+                query("findByNameSearchStartingWithAndActiveTrue",
+                        "SELECT d.* FROM doctors d WHERE d.name_search LIKE 'doctor 001%' AND d.active = TRUE"),
+                query("findByNameSearchContaining",
+                        "SELECT d.* FROM doctors d "
+                        + "JOIN (SELECT g.doctor_id FROM doctor_name_trigrams g "
+                        + "WHERE g.trigram IN ('r 0', ' 01', '015') "
+                        + "GROUP BY g.doctor_id HAVING COUNT(*) = 3) m ON m.doctor_id = d.id "
+                        + "WHERE d.name_search LIKE '%r 015%' AND d.active = TRUE"),
+                query("findBySpecialty",
+                        "SELECT d.* FROM doctors d WHERE d.specialty = 'specialty 7' AND d.active = TRUE"),
+                query("deactivate",
+                        "UPDATE doctors SET active = FALSE WHERE id = " + doctorId + " AND active = TRUE"),
+                query("Doctor.availableTimes batch load",
+                        "SELECT t.doctor_id, t.time_slot FROM doctor_available_times t "
+                        + "WHERE t.doctor_id IN (" + doctorId + ", " + (doctorId + 1) + ", " + (doctorId + 2) + ")"));
+    }
+
+    private static Arguments query(String name, String sql) {
+        return Arguments.of(name, sql);
+    }
+
+    /**
+     * Derived tables (&lt;derivedN&gt;, &lt;subqueryN&gt;) are scanned by construction;
+     * only reads of real tables count as full scans.
+     */
+    private static boolean isBaseTable(Map<String, Object> row) {
+        Object table = row.get("table");
+        return table != null && !table.toString().startsWith("<");
+    }
+}
@@ -0,0 +1,211 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.config.StatementCounter;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+class AppointmentServiceStatementCountTest extends StatementCountTestSupport {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    private final List<Long> appointmentIds = new ArrayList<>();
+    private long doctorId;
+    private long patientId;
+    private LocalDate day;
+
+    // All appointments on one day, two days out, so tomorrow's slots stay free
+    private void seed(int appointments) {
+        appointmentIds.clear();
+        doctorId = insertDoctor("Alice Martin", "Cardiology", "AM", "PM");
+        patientId = insertPatient("Paul Durand");
+        day = LocalDate.now().plusDays(2);
+        for (int i = 0; i < appointments; i++) {
+            appointmentIds.add(insertAppointment(doctorId, patientId, day.atTime(9, 0).plusMinutes(i), 0));
+        }
+    }
+
+    private Doctor doctorReference() {
+        Doctor doctor = new Doctor();
+        doctor.setId(doctorId);
+        return doctor;
+    }
+
+    private Patient patientReference() {
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        return patient;
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void bookAppointmentIssuesOneStatement(int appointments) {
+        seed(appointments);
+        Appointment appointment = new Appointment(doctorReference(), patientReference(),
+                LocalDate.now().plusDays(1).atTime(15, 0), 0);
+
+        int statements = countStatements(() -> assertThat(appointmentService.bookAppointment(appointment)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void updateAppointmentIssuesOneStatement(int appointments) {
+        seed(appointments);
+        Appointment appointment = new Appointment(doctorReference(), patientReference(),
+                LocalDate.now().plusDays(1).atTime(9, 0), 0);
+        appointment.setId(appointmentIds.get(0));
+        appointment.setVersion(0L);
+        String token = tokenService.generateToken(patientId, "PATIENT");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.updateAppointment(appointment, token).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    // The reschedule only writes appointments, so the doctor cache regions must survive it.
+    // Measured without countStatements, which empties the second-level cache first.
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void updateAppointmentKeepsDoctorCacheWarm(int appointments) {
+        seed(appointments);
+        Appointment appointment = new Appointment(doctorReference(), patientReference(),
+                LocalDate.now().plusDays(1).atTime(9, 0), 0);
+        appointment.setId(appointmentIds.get(0));
+        appointment.setVersion(0L);
+        String token = tokenService.generateToken(patientId, "PATIENT");
+        doctorService.getDoctors();
+        doctorService.filterDoctorBySpeciality("Cardiology");
+        int listingBefore = warmStatements(() -> doctorService.getDoctors());
+        int specialtyBefore = warmStatements(() -> doctorService.filterDoctorBySpeciality("Cardiology"));
+
+        assertThat(appointmentService.updateAppointment(appointment, token).getStatusCode().value()).isEqualTo(200);
+
+        assertThat(warmStatements(() -> doctorService.getDoctors())).isEqualTo(listingBefore);
+        assertThat(warmStatements(() -> doctorService.filterDoctorBySpeciality("Cardiology")))
+                .isEqualTo(specialtyBefore);
+    }
+
+    private static int warmStatements(Runnable action) {
+        StatementCounter.reset();
+        action.run();
+        return StatementCounter.current();
+    }
+
+    // Appointment lookup, DELETE
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void cancelAppointmentIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(patientId, "PATIENT");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.cancelAppointment(appointmentIds.get(0), token).getStatusCode().value())
+                .isEqualTo(200));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // Doctor lookup, day view
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(doctorId, "DOCTOR");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.getAppointment(null, day, token).get("totalAppointments")).isEqualTo(appointments));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentByPatientNameIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(doctorId, "DOCTOR");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.getAppointment("durand", day, token).get("totalAppointments"))
+                .isEqualTo(appointments));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentByPatientNamePrefixIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(doctorId, "DOCTOR");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.getAppointment("pa", day, token).get("totalAppointments"))
+                .isEqualTo(appointments));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // Appointment lookup, UPDATE
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void changeStatusIssuesTwoStatements(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.changeStatus(appointmentIds.get(0), 1).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // Ownership check, UPDATE, whatever the number of IDs
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void changeStatusesIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(doctorId, "DOCTOR");
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.changeStatuses(appointmentIds, 1, token).getBody().get("updated"))
+                .isEqualTo(appointments));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentsByPatientIdIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.getAppointmentsByPatientId(patientId)).hasSize(appointments));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentsByPatientIdAndStatusIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                appointmentService.getAppointmentsByPatientIdAndStatus(patientId, 0)).hasSize(appointments));
+
+        assertThat(statements).isEqualTo(1);
+    }
+}
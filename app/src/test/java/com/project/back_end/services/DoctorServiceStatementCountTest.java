@@ -0,0 +1,219 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.DTO.Login;
+import com.project.back_end.models.Doctor;
+
+/**
+ * Doctor listings cost one query for the doctors plus one batch for their
+ * available times, whatever the number of doctors (up to the batch size of 100).
+ */
+class DoctorServiceStatementCountTest extends StatementCountTestSupport {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    private final List<Long> doctorIds = new ArrayList<>();
+
+    private void seed(int doctors) {
+        doctorIds.clear();
+        for (int i = 0; i < doctors; i++) {
+            doctorIds.add(insertDoctor(String.format("Doctor %02d", i), "Cardiology", "AM", "PM"));
+        }
+    }
+
+    private String doctorEmail() {
+        return jdbcTemplate.queryForObject("SELECT email FROM doctors WHERE id = ?", String.class, doctorIds.get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int doctorCount(Map<String, Object> response) {
+        return ((List<Doctor>) response.get("doctors")).size();
+    }
+
+    // Doctor, its available times, the booked times of the day
+    @ParameterizedTest(name = "{0} booked appointments")
+    @ValueSource(ints = {1, 25})
+    void getDoctorAvailabilityIssuesThreeStatements(int booked) {
+        seed(1);
+        long patientId = insertPatient("Paul Durand");
+        LocalDate day = LocalDate.now().plusDays(1);
+        for (int i = 0; i < booked; i++) {
+            insertAppointment(doctorIds.get(0), patientId, day.atTime(9, 0).plusMinutes(i), 0);
+        }
+
+        int statements = countStatements(() -> assertThat(
+                doctorService.getDoctorAvailability(doctorIds.get(0), day)).containsExactly("PM"));
+
+        assertThat(statements).isEqualTo(3);
+    }
+
+    // Email check, doctor insert, one trigram row ("ann"); no slots
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void saveDoctorIssuesThreeStatements(int doctors) {
+        seed(doctors);
+        Doctor doctor = new Doctor("Ann", "Cardiology", "ann@example.com", "secret123", "3000000000");
+
+        int statements = countStatements(() -> assertThat(doctorService.saveDoctor(doctor)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(3);
+    }
+
+    // existsById, merge select, available times replaced during merge,
+    // trigram load in @PreUpdate, UPDATE; unchanged collections are not rewritten
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void updateDoctorIssuesFiveStatements(int doctors) {
+        seed(doctors);
+        Doctor doctor = doctorService.getDoctorById(doctorIds.get(0));
+        doctor.setPhone("3000000001");
+
+        int statements = countStatements(() -> assertThat(doctorService.updateDoctor(doctor)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(5);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void getDoctorsIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(doctorService.getDoctors()).hasSize(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void validateDoctorIssuesOneStatement(int doctors) {
+        seed(doctors);
+        Login login = new Login(doctorEmail(), "secret123");
+
+        int statements = countStatements(() -> assertThat(
+                doctorService.validateDoctor(login).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void findDoctorByNameIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(
+                doctorCount(doctorService.findDoctorByName("doctor"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorsByNameSpecialityAndTimeIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(doctorCount(
+                doctorService.filterDoctorsByNameSpecialityAndTime("doctor", "Cardiology", "AM")))
+                .isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorByNameAndTimeIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(
+                doctorCount(doctorService.filterDoctorByNameAndTime("doctor", "PM"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorByNameAndSpecialityIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(doctorCount(
+                doctorService.filterDoctorByNameAndSpeciality("doctor", "Cardiology"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorByTimeAndSpecialityIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(doctorCount(
+                doctorService.filterDoctorByTimeAndSpeciality("cardiology", "AM"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorBySpecialityIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(
+                doctorCount(doctorService.filterDoctorBySpeciality("Cardiology"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void filterDoctorsByTimeIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(
+                doctorCount(doctorService.filterDoctorsByTime("AM"))).isEqualTo(doctors));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void getDoctorByEmailIssuesOneStatement(int doctors) {
+        seed(doctors);
+        String email = doctorEmail();
+
+        int statements = countStatements(() -> assertThat(doctorService.getDoctorByEmail(email)).isNotNull());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void getDoctorByIdIssuesTwoStatements(int doctors) {
+        seed(doctors);
+
+        int statements = countStatements(() -> assertThat(
+                doctorService.getDoctorById(doctorIds.get(0)).getAvailableTimes()).hasSize(2));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} doctors")
+    @ValueSource(ints = {1, 25})
+    void doctorExistsByEmailIssuesOneStatement(int doctors) {
+        seed(doctors);
+        String email = doctorEmail();
+
+        int statements = countStatements(() -> assertThat(doctorService.doctorExistsByEmail(email)).isTrue());
+
+        assertThat(statements).isEqualTo(1);
+    }
+}
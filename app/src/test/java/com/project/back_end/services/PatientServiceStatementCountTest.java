@@ -0,0 +1,183 @@
+package com.project.back_end.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.models.Patient;
+
+class PatientServiceStatementCountTest extends StatementCountTestSupport {
+
+    @Autowired
+    private PatientService patientService;
+
+    private long patientId;
+
+    private void seed(int appointments) {
+        long doctorId = insertDoctor("Alice Martin", "Cardiology", "AM", "PM");
+        patientId = insertPatient("Paul Durand");
+        LocalDateTime first = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime lastPast = LocalDateTime.now().minusDays(1).withNano(0);
+        for (int i = 0; i < appointments; i++) {
+            insertAppointment(doctorId, patientId, first.plusHours(i), 0);
+            insertAppointment(doctorId, patientId, lastPast.minusHours(i), 1);
+        }
+    }
+
+    private String patientEmail() {
+        return jdbcTemplate.queryForObject("SELECT email FROM patients WHERE id = ?", String.class, patientId);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getPatientAppointmentIssuesOneStatement(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(patientId, "PATIENT");
+
+        int statements = countStatements(() -> assertThat(
+                patientService.getPatientAppointment(patientId, token).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void filterByConditionIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.filterByCondition("future", patientId).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void filterByDoctorIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.filterByDoctor("martin", patientId).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void filterByDoctorAndConditionIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.filterByDoctorAndCondition("future", "martin", patientId)
+                        .getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getAppointmentHistoryPageIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.getAppointmentHistoryPage(patientId, "upcoming", null, "next", 10)
+                        .getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getPatientDetailsIssuesOneStatement(int appointments) {
+        seed(appointments);
+        String token = tokenService.generateToken(patientId, "PATIENT");
+
+        int statements = countStatements(() -> assertThat(
+                patientService.getPatientDetails(token).getStatusCode().value()).isEqualTo(200));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getPatientByEmailIssuesOneStatement(int appointments) {
+        seed(appointments);
+        String email = patientEmail();
+
+        int statements = countStatements(() -> assertThat(patientService.getPatientByEmail(email)).isNotNull());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getPatientByIdIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(patientService.getPatientById(patientId)).isNotNull());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void patientExistsByEmailIssuesOneStatement(int appointments) {
+        seed(appointments);
+        String email = patientEmail();
+
+        int statements = countStatements(() -> assertThat(patientService.patientExistsByEmail(email)).isTrue());
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getUpcomingAppointmentsIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.getUpcomingAppointments(patientId)).hasSize(appointments));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void getPastAppointmentsIssuesOneStatement(int appointments) {
+        seed(appointments);
+
+        int statements = countStatements(() -> assertThat(
+                patientService.getPastAppointments(patientId)).hasSize(appointments));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    // Patient insert + one trigram row ("ann")
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void createPatientIssuesTwoStatements(int appointments) {
+        seed(appointments);
+        Patient patient = new Patient("Ann", "ann@example.com", "secret123", "3000000000", "1 Main Street");
+
+        int statements = countStatements(() -> assertThat(patientService.createPatient(patient)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // existsById, merge select, trigram load in @PreUpdate, UPDATE; appointments stay unloaded
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {1, 25})
+    void updatePatientIssuesFourStatements(int appointments) {
+        seed(appointments);
+        Patient patient = patientService.getPatientById(patientId);
+        patient.setPhone("3000000001");
+
+        int statements = countStatements(() -> assertThat(patientService.updatePatient(patient)).isEqualTo(1));
+
+        assertThat(statements).isEqualTo(4);
+    }
+}
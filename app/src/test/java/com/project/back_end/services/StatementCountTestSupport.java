@@ -0,0 +1,125 @@
+package com.project.back_end.services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.project.back_end.TestcontainersConfiguration;
+import com.project.back_end.config.StatementCounter;
+import com.project.back_end.models.SearchNormalizer;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Base for tests that pin the number of SQL statements a service method issues.
+ * Rows are seeded with plain JDBC so seeding never shows up in the count, and
+ * the second-level cache is emptied before each measurement so every count is
+ * the cold-cache cost. Tests run each scenario over differently sized seeds
+ * and expect the same count, so an N+1 fails the build.
+ */
+@SpringBootTest(properties = "appointments.sweeper.enabled=false")
+@Import(TestcontainersConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class StatementCountTestSupport {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected TokenService tokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void deleteSeededRows() {
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM doctor_available_times");
+        jdbcTemplate.update("DELETE FROM doctor_name_trigrams");
+        jdbcTemplate.update("DELETE FROM doctors");
+        jdbcTemplate.update("DELETE FROM patient_name_trigrams");
+        jdbcTemplate.update("DELETE FROM patients");
+        evictSecondLevelCache();
+    }
+
+    /**
+     * Run an action and return the number of SQL statements Hibernate prepared for it.
+     */
+    protected int countStatements(Runnable action) {
+        evictSecondLevelCache();
+        StatementCounter.reset();
+        action.run();
+        return StatementCounter.current();
+    }
+
+    protected long insertDoctor(String name, String specialty, String... slots) {
+        int n = SEQUENCE.incrementAndGet();
+        String nameSearch = SearchNormalizer.normalize(name);
+        long id = new SimpleJdbcInsert(jdbcTemplate).withTableName("doctors")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "name", name,
+                        "name_search", nameSearch,
+                        "specialty", specialty,
+                        "email", "doctor" + n + "@example.com",
+                        "password", "secret123",
+                        "phone", String.format("1%09d", n)))
+                .longValue();
+        for (String slot : slots) {
+            jdbcTemplate.update("INSERT INTO doctor_available_times (doctor_id, time_slot) VALUES (?, ?)", id, slot);
+        }
+        for (String trigram : SearchNormalizer.trigrams(nameSearch)) {
+            jdbcTemplate.update("INSERT INTO doctor_name_trigrams (doctor_id, trigram) VALUES (?, ?)", id, trigram);
+        }
+        return id;
+    }
+
+    protected long insertPatient(String name) {
+        int n = SEQUENCE.incrementAndGet();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String nameSearch = SearchNormalizer.normalize(name);
+        long id = new SimpleJdbcInsert(jdbcTemplate).withTableName("patients")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "name", name,
+                        "name_search", nameSearch,
+                        "email", "patient" + n + "@example.com",
+                        "password", "secret123",
+                        "phone", String.format("2%09d", n),
+                        "address", "1 Main Street",
+                        "created_at", now,
+                        "updated_at", now))
+                .longValue();
+        for (String trigram : SearchNormalizer.trigrams(nameSearch)) {
+            jdbcTemplate.update("INSERT INTO patient_name_trigrams (patient_id, trigram) VALUES (?, ?)", id, trigram);
+        }
+        return id;
+    }
+
+    protected long insertAppointment(long doctorId, long patientId, LocalDateTime time, int status) {
+        return new SimpleJdbcInsert(jdbcTemplate).withTableName("appointments")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of(
+                        "doctor_id", doctorId,
+                        "patient_id", patientId,
+                        "appointment_time", Timestamp.valueOf(time),
+                        "status", status))
+                .longValue();
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}